@@ -25,6 +25,17 @@ android {
             )
         }
     }
+    testOptions {
+        // android.jar methods return defaults instead of throwing, so JVM tests can
+        // drive the renderer against an inert Canvas
+        unitTests.isReturnDefaultValues = true
+        // Compile on the thread that needs the code, so the allocation tests' warm-up
+        // covers every JIT compile; a background compile that finishes later can
+        // allocate on the test thread mid-measurement
+        unitTests.all {
+            it.jvmArgs("-Xbatch")
+        }
+    }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
@@ -33,10 +44,12 @@ android {
 
 dependencies {
 
+    implementation(project(":core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
+    implementation(libs.recyclerview)
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
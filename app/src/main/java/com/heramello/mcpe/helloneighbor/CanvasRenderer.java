@@ -0,0 +1,346 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.os.Build;
+import android.view.SurfaceHolder;
+import com.heramello.mcpe.helloneighbor.core.FrameStats;
+import com.heramello.mcpe.helloneighbor.core.LatencyHistogram;
+import com.heramello.mcpe.helloneighbor.core.MeteorPool;
+import com.heramello.mcpe.helloneighbor.core.QualityGovernor;
+import com.heramello.mcpe.helloneighbor.core.Spaceship;
+import com.heramello.mcpe.helloneighbor.core.Starfield;
+import com.heramello.mcpe.helloneighbor.core.WorldSnapshot;
+
+/**
+ * Draws the game with {@link Canvas} calls. Subclasses decide where the canvas
+ * comes from, so every backend produces the same frame. Detail is trimmed to the
+ * level picked by the {@link QualityGovernor}.
+ *
+ * Frames are drawn from {@link WorldSnapshot}s on the render thread, never from
+ * the live world, so drawing can overlap the next tick.
+ *
+ * A frame is composed of layers, back to front: the background gradient, stars,
+ * meteors, the ship and the HUD. The background and the HUD are rasterized ahead
+ * of time and redrawn only when they change (size for the background,
+ * shown values for the HUD), so each costs one drawBitmap per frame; only the
+ * moving objects are drawn from scratch.
+ */
+public abstract class CanvasRenderer implements Renderer {
+
+    // Overlay text is rebuilt every this many frames, not every frame
+    private static final int OVERLAY_REFRESH_FRAMES = 30;
+
+    private static final int BACKGROUND_TOP_COLOR = 0xFF000510;
+    private static final int BACKGROUND_BOTTOM_COLOR = 0xFF1A0520;
+
+    // Only for the layer layout (counts, speeds, styles), which never changes;
+    // the star positions come from the snapshot
+    private final Starfield starfield;
+    private final FrameStats stats;
+    private final QualityGovernor quality;
+
+    private Paint paint;
+    private Paint backgroundPaint;
+    private Rect backgroundBounds;
+    private Bitmap backgroundBitmap;
+    private Path shipPath;
+    private MeteorSpriteCache meteorSprites;
+    private Paint[] starPaints;
+    private HudLayer hud;
+    private int width, height;
+
+    private Paint overlayPaint;
+    private StringBuilder[] overlayLines;
+    private int overlayAge;
+
+    protected CanvasRenderer(Starfield starfield, FrameStats stats, QualityGovernor quality) {
+        this.starfield = starfield;
+        this.stats = stats;
+        this.quality = quality;
+        paint = new Paint();
+        paint.setAntiAlias(true);
+        backgroundPaint = new Paint();
+        backgroundPaint.setFilterBitmap(false);
+        backgroundBounds = new Rect();
+        shipPath = new Path();
+        meteorSprites = RenderCaches.takeSpriteCache();
+        starPaints = new Paint[Starfield.LAYERS];
+        for (int layer = 0; layer < Starfield.LAYERS; layer++) {
+            Paint starPaint = new Paint();
+            starPaint.setColor(Color.WHITE);
+            starPaint.setAlpha(starfield.getAlpha(layer));
+            starPaint.setStrokeWidth(starfield.getSize(layer));
+            // Round points only where stars are big enough for it to show
+            starPaint.setStrokeCap(layer == Starfield.LAYERS - 1 ? Paint.Cap.ROUND : Paint.Cap.SQUARE);
+            starPaint.setAntiAlias(layer == Starfield.LAYERS - 1);
+            starPaints[layer] = starPaint;
+        }
+        hud = new HudLayer();
+        overlayPaint = new Paint();
+        overlayPaint.setTextSize(28);
+        overlayPaint.setColor(Color.GREEN);
+        overlayLines = new StringBuilder[FrameStats.phaseCount() + 1];
+        for (int i = 0; i < overlayLines.length; i++) {
+            overlayLines[i] = new StringBuilder(64);
+        }
+    }
+
+    /** Picks the GPU-backed canvas where the platform has one, software otherwise. */
+    public static Renderer create(Starfield starfield, FrameStats stats, QualityGovernor quality) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            return new HardwareCanvasRenderer(starfield, stats, quality);
+        }
+        return new SoftwareCanvasRenderer(starfield, stats, quality);
+    }
+
+    protected abstract Canvas lockCanvas(SurfaceHolder holder);
+
+    protected abstract void unlockCanvasAndPost(SurfaceHolder holder, Canvas canvas);
+
+    @Override
+    public boolean renderFrame(SurfaceHolder holder, WorldSnapshot snapshot, float alpha) {
+        if (!holder.getSurface().isValid()) return false;
+
+        long start = System.nanoTime();
+        Canvas canvas = lockCanvas(holder);
+        long locked = System.nanoTime();
+        stats.record(FrameStats.LOCK, locked - start);
+        if (canvas == null) return false;
+
+        draw(canvas, snapshot, alpha);
+        long drawn = System.nanoTime();
+        stats.record(FrameStats.DRAW, drawn - locked);
+
+        // Returns once the frame has been synced, so the bitmaps it drew may now be
+        // recycled or redrawn (the HUD layer relies on this too)
+        unlockCanvasAndPost(holder, canvas);
+        meteorSprites.recycleEvicted();
+        stats.record(FrameStats.POST, System.nanoTime() - drawn);
+        return true;
+    }
+
+    @Override
+    public void onSizeChanged(int width, int height) {
+        this.width = width;
+        this.height = height;
+        buildBackground(width, height);
+    }
+
+    @Override
+    public void release() {
+        meteorSprites.recycleEvicted();
+        RenderCaches.recycleSpriteCache(meteorSprites);
+    }
+
+    // alpha is the fraction of a tick elapsed since the last update(); moving objects
+    // are drawn between their previous and current positions
+    void draw(Canvas canvas, WorldSnapshot snapshot, float alpha) {
+        canvas.save();
+        // At reduced resolution the surface is smaller than the view; everything is
+        // laid out in view pixels, so scale down to whatever buffer we actually got
+        if (width > 0 && canvas.getWidth() != width) {
+            float scale = (float) canvas.getWidth() / width;
+            canvas.scale(scale, scale);
+        }
+
+        // Apply shake offset
+        canvas.save();
+        canvas.translate(snapshot.getShakeOffsetX(), snapshot.getShakeOffsetY());
+
+        drawScene(canvas, snapshot, alpha);
+        drawHUD(canvas, snapshot);
+
+        canvas.restore();
+
+        // Scaled like the rest, but the overlay stays put while the screen shakes
+        if (stats.isOverlayVisible()) {
+            drawOverlay(canvas);
+        }
+
+        canvas.restore();
+    }
+
+    // Background, stars, meteors and ship. Package-private, like the other draw
+    // steps, so the allocation tests can measure each one on its own.
+    void drawScene(Canvas canvas, WorldSnapshot snapshot, float alpha) {
+        // Space background, stretched over the view once it has a size
+        if (width > 0 && height > 0) {
+            canvas.drawBitmap(backgroundBitmap, null, backgroundBounds, backgroundPaint);
+        }
+
+        // Draw background stars, one batched drawPoints per parallax layer, shifted
+        // by the layer's scroll offset. The offset is the latest tick's, so it is
+        // taken back by the part of the per-tick step that has not elapsed yet.
+        // Stars are scattered at random, so a prefix of each layer is an even thinning.
+        float starFraction = quality.starFraction();
+        int fieldHeight = snapshot.getHeight();
+        for (int layer = 0; layer < Starfield.LAYERS; layer++) {
+            float shift = snapshot.getStarOffset(layer) - starfield.getSpeed(layer) * (1 - alpha);
+            if (shift < 0) shift += fieldHeight;
+            int count = (int) (starfield.getCount(layer) * starFraction);
+            canvas.translate(0, shift);
+            // Four floats per star: the star and its wrap copy
+            canvas.drawPoints(snapshot.getStarPoints(layer), 0, count * 4, starPaints[layer]);
+            canvas.translate(0, -shift);
+        }
+
+        // Draw meteors
+        MeteorPool meteors = snapshot.getMeteors();
+        boolean trails = quality.drawsTrails();
+        boolean glows = quality.drawsGlow();
+        for (int i = 0, n = meteors.size(); i < n; i++) {
+            drawMeteor(canvas, meteors, i, alpha, trails, glows);
+        }
+
+        // Draw spaceship
+        Spaceship spaceship = snapshot.getSpaceship();
+        if (spaceship != null) {
+            drawSpaceship(canvas, spaceship);
+        }
+    }
+
+    private void drawSpaceship(Canvas canvas, Spaceship ship) {
+        paint.setStyle(Paint.Style.FILL);
+
+        // Spaceship body (triangular)
+        shipPath.reset();
+        shipPath.moveTo(ship.x + ship.width / 2, ship.y); // Top point
+        shipPath.lineTo(ship.x + ship.width, ship.y + ship.height); // Bottom right
+        shipPath.lineTo(ship.x, ship.y + ship.height); // Bottom left
+        shipPath.close();
+
+        paint.setColor(Color.rgb(100, 200, 255));
+        canvas.drawPath(shipPath, paint);
+
+        // Spaceship cockpit
+        paint.setColor(Color.rgb(50, 150, 255));
+        canvas.drawCircle(ship.x + ship.width / 2, ship.y + ship.height / 2, ship.width / 4, paint);
+
+        // Engine glow
+        paint.setColor(Color.rgb(255, 100, 50));
+        canvas.drawCircle(ship.x + ship.width / 4, ship.y + ship.height - 5, 8, paint);
+        canvas.drawCircle(ship.x + 3 * ship.width / 4, ship.y + ship.height - 5, 8, paint);
+
+        // Outline
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(3);
+        paint.setColor(Color.WHITE);
+        canvas.drawPath(shipPath, paint);
+    }
+
+    private void drawMeteor(Canvas canvas, MeteorPool meteors, int i, float alpha,
+                            boolean trails, boolean glows) {
+        float size = meteors.size[i];
+        float centerX = meteors.x[i] + size / 2;
+        float centerY = lerp(meteors.prevY[i], meteors.y[i], alpha) + size / 2;
+
+        // Body, craters, fire trail and danger glow come pre-rasterized
+        boolean glow = glows && meteors.proximity[i] == MeteorPool.PROXIMITY_NEAR;
+        int key = MeteorSpriteCache.keyFor(size, glow, trails);
+        canvas.drawBitmap(meteorSprites.get(key),
+                centerX + meteorSprites.getOffsetX(key),
+                centerY + meteorSprites.getOffsetY(key), null);
+    }
+
+    // Composites the HUD layer, re-rasterizing it first if a shown value changed
+    void drawHUD(Canvas canvas, WorldSnapshot snapshot) {
+        hud.update(snapshot.getSurvivalTime(), snapshot.getNearMisses());
+        hud.draw(canvas);
+    }
+
+    // Drawn sizes of the background and HUD bitmaps, known without the bitmaps
+    // themselves, like MeteorSpriteCache's sprite sizes
+    int getBackgroundWidth() {
+        return width;
+    }
+
+    int getBackgroundHeight() {
+        return height;
+    }
+
+    int getHudWidth() {
+        return hud.getWidth();
+    }
+
+    int getHudHeight() {
+        return hud.getHeight();
+    }
+
+    // Debug overlay: per-phase p50/p95/p99 and live counters
+    void drawOverlay(Canvas canvas) {
+        if (overlayAge-- <= 0) {
+            overlayAge = OVERLAY_REFRESH_FRAMES;
+            for (int i = 0; i < FrameStats.phaseCount(); i++) {
+                LatencyHistogram h = stats.get(i);
+                StringBuilder line = overlayLines[i];
+                line.setLength(0);
+                line.append(FrameStats.phaseName(i)).append(' ');
+                appendMillis(line, h.percentile(50)).append(" / ");
+                appendMillis(line, h.percentile(95)).append(" / ");
+                appendMillis(line, h.percentile(99)).append(" ms");
+            }
+            StringBuilder counters = overlayLines[overlayLines.length - 1];
+            counters.setLength(0);
+            counters.append("meteors ").append(stats.getMeteorCount())
+                    .append("  spawns/s ").append((int) stats.getSpawnsPerSecond())
+                    .append("  gc ").append(stats.getGcCount())
+                    .append("  quality ").append(QualityGovernor.levelName(quality.getLevel()));
+        }
+
+        float y = height - 40 - overlayLines.length * 34;
+        for (StringBuilder line : overlayLines) {
+            canvas.drawText(line, 0, line.length(), 20, y, overlayPaint);
+            y += 34;
+        }
+    }
+
+    // Appends nanos as milliseconds with two decimals, without going through a String
+    private static StringBuilder appendMillis(StringBuilder sb, long nanos) {
+        long hundredths = nanos / 10_000;
+        sb.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction);
+    }
+
+    private static float lerp(float from, float to, float alpha) {
+        return from + (to - from) * alpha;
+    }
+
+    // draw() stretches the gradient strip across the screen with filtering off, so
+    // every row keeps its exact color. The splash screen usually prebuilt it.
+    private void buildBackground(int w, int h) {
+        if (w <= 0 || h <= 0) return;
+
+        Bitmap strip = RenderCaches.getBackground(h);
+        if (strip == null) {
+            strip = buildBackgroundStrip(h);
+        }
+        backgroundBounds.set(0, 0, w, h);
+        backgroundBitmap = strip;
+    }
+
+    /** Renders the vertical background gradient into a 1px wide strip. */
+    static Bitmap buildBackgroundStrip(int h) {
+        // One bulk upload instead of a setPixel call per row
+        int[] colors = new int[h];
+        for (int i = 0; i < h; i++) {
+            float ratio = (float) i / h;
+            colors[i] = interpolateColor(BACKGROUND_TOP_COLOR, BACKGROUND_BOTTOM_COLOR, ratio);
+        }
+        return Bitmap.createBitmap(colors, 1, h, Bitmap.Config.ARGB_8888);
+    }
+
+    private static int interpolateColor(int color1, int color2, float ratio) {
+        int a = (int) ((Color.alpha(color1) * (1 - ratio) + Color.alpha(color2) * ratio));
+        int r = (int) ((Color.red(color1) * (1 - ratio) + Color.red(color2) * ratio));
+        int g = (int) ((Color.green(color1) * (1 - ratio) + Color.green(color2) * ratio));
+        int b = (int) ((Color.blue(color1) * (1 - ratio) + Color.blue(color2) * ratio));
+        return Color.argb(a, r, g, b);
+    }
+}
@@ -0,0 +1,41 @@
+package com.heramello.mcpe.helloneighbor;
+
+import com.heramello.mcpe.helloneighbor.core.GameEventRing;
+
+/**
+ * A thread that reads one consumer's share of a {@link GameEventRing}. Each wake-up
+ * drains everything pending and then calls {@link #onBatchEnd}, so subclasses can
+ * collapse a burst of events into a single side effect.
+ */
+abstract class EventConsumerThread extends Thread implements GameEventRing.Handler {
+
+    private final GameEventRing.Consumer consumer;
+    private volatile boolean stopped;
+
+    EventConsumerThread(String name, GameEventRing ring) {
+        super(name);
+        consumer = ring.addConsumer();
+    }
+
+    @Override
+    public void run() {
+        while (!stopped) {
+            if (consumer.drain(this) > 0) {
+                onBatchEnd();
+            } else {
+                consumer.await(0);
+            }
+        }
+    }
+
+    /** Called after every non-empty batch of events. */
+    protected void onBatchEnd() {
+    }
+
+    /** Stops the thread once it has handled what is already pending. */
+    void shutdown() {
+        stopped = true;
+        consumer.wake();
+        interrupt();
+    }
+}
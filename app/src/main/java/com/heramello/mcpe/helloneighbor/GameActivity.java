@@ -9,15 +9,22 @@ import androidx.appcompat.app.AppCompatActivity;
 
 public class GameActivity extends AppCompatActivity {
 
+    public static final String EXTRA_SWARM = "SWARM";
+
+    private static final String STATE_WORLD = "WORLD";
+
     private GameView gameView;
     private Vibrator vibrator;
+    private boolean swarm;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
         vibrator = (Vibrator) getSystemService(Context.VIBRATOR_SERVICE);
-        gameView = new GameView(this, vibrator);
+        swarm = getIntent().getBooleanExtra(EXTRA_SWARM, false);
+        byte[] savedWorld = savedInstanceState != null ? savedInstanceState.getByteArray(STATE_WORLD) : null;
+        gameView = new GameView(this, vibrator, savedWorld, swarm);
         setContentView(gameView);
 
         View decorView = getWindow().getDecorView();
@@ -31,6 +38,18 @@ public class GameActivity extends AppCompatActivity {
         );
     }
 
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putByteArray(STATE_WORLD, gameView.saveState());
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        gameView.release();
+    }
+
     @Override
     protected void onPause() {
         super.onPause();
@@ -47,6 +66,7 @@ public class GameActivity extends AppCompatActivity {
         Intent intent = new Intent(GameActivity.this, GameOverActivity.class);
         intent.putExtra("SURVIVAL_TIME", survivalTime);
         intent.putExtra("NEAR_MISSES", nearMisses);
+        intent.putExtra(EXTRA_SWARM, swarm);
         startActivity(intent);
         finish();
         overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
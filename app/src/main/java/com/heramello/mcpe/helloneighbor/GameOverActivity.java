@@ -1,14 +1,12 @@
 package com.heramello.mcpe.helloneighbor;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
-import java.util.ArrayList;
-import java.util.Collections;
+import com.heramello.mcpe.helloneighbor.core.RunRecord;
 
 public class GameOverActivity extends AppCompatActivity {
 
@@ -37,15 +35,31 @@ public class GameOverActivity extends AppCompatActivity {
                 "Near Misses: " + nearMisses + "\n" +
                 "Final Score: " + finalScore);
 
-        boolean isNewRecord = saveHighScore(finalScore, survivalTime, nearMisses);
-        if (isNewRecord) {
-            tvNewRecord.setVisibility(View.VISIBLE);
-        }
+        boolean swarm = getIntent().getBooleanExtra(GameActivity.EXTRA_SWARM, false);
+        ScoreRepository.getInstance(this).addScore(
+                new GameScore(finalScore, survivalTime, nearMisses),
+                swarm ? RunRecord.MODE_SWARM : RunRecord.MODE_CLASSIC,
+                new ScoreRepository.Callback<RunStats>() {
+                    @Override
+                    public void onResult(RunStats stats) {
+                        if (stats.isNewRecord) {
+                            tvNewRecord.setVisibility(View.VISIBLE);
+                        }
+                        // Compared with earlier runs, so only once there are some
+                        if (stats.runs > 1) {
+                            tvStats.append("\nBetter than " + Math.round(stats.percentileRank)
+                                    + "% of your runs");
+                        }
+                    }
+                });
 
         btnPlayAgain.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                startActivity(new Intent(GameOverActivity.this, GameActivity.class));
+                Intent intent = new Intent(GameOverActivity.this, GameActivity.class);
+                intent.putExtra(GameActivity.EXTRA_SWARM,
+                        getIntent().getBooleanExtra(GameActivity.EXTRA_SWARM, false));
+                startActivity(intent);
                 finish();
                 overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
             }
@@ -64,57 +78,4 @@ public class GameOverActivity extends AppCompatActivity {
     private int calculateScore(long time, int misses) {
         return (int) (time * 10 + misses * 5);
     }
-
-    private boolean saveHighScore(int score, long time, int misses) {
-        SharedPreferences prefs = getSharedPreferences("NovaRushScores", MODE_PRIVATE);
-        String scoresString = prefs.getString("scores", "");
-
-        ArrayList<GameScore> scores = new ArrayList<>();
-        if (!scoresString.isEmpty()) {
-            String[] scoreArray = scoresString.split(";");
-            for (String s : scoreArray) {
-                String[] parts = s.split(",");
-                if (parts.length == 3) {
-                    scores.add(new GameScore(
-                            Integer.parseInt(parts[0]),
-                            Long.parseLong(parts[1]),
-                            Integer.parseInt(parts[2])
-                    ));
-                }
-            }
-        }
-
-        boolean isNewRecord = scores.isEmpty() || score > scores.get(0).score;
-
-        scores.add(new GameScore(score, time, misses));
-        Collections.sort(scores, (a, b) -> Integer.compare(b.score, a.score));
-
-        if (scores.size() > 10) {
-            scores = new ArrayList<>(scores.subList(0, 10));
-        }
-
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < scores.size(); i++) {
-            GameScore gs = scores.get(i);
-            sb.append(gs.score).append(",")
-                    .append(gs.time).append(",")
-                    .append(gs.nearMisses);
-            if (i < scores.size() - 1) sb.append(";");
-        }
-
-        prefs.edit().putString("scores", sb.toString()).apply();
-        return isNewRecord;
-    }
-
-    class GameScore {
-        int score;
-        long time;
-        int nearMisses;
-
-        GameScore(int score, long time, int nearMisses) {
-            this.score = score;
-            this.time = time;
-            this.nearMisses = nearMisses;
-        }
-    }
 }
\ No newline at end of file
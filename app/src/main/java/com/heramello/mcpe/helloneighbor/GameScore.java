@@ -0,0 +1,13 @@
+package com.heramello.mcpe.helloneighbor;
+
+public class GameScore {
+    final int score;
+    final long time;
+    final int nearMisses;
+
+    GameScore(int score, long time, int nearMisses) {
+        this.score = score;
+        this.time = time;
+        this.nearMisses = nearMisses;
+    }
+}
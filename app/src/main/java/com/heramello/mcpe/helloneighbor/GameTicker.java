@@ -0,0 +1,107 @@
+package com.heramello.mcpe.helloneighbor;
+
+import com.heramello.mcpe.helloneighbor.core.GameEventRing;
+import com.heramello.mcpe.helloneighbor.core.GameWorld;
+import com.heramello.mcpe.helloneighbor.core.PointerChannel;
+import com.heramello.mcpe.helloneighbor.core.Replay;
+import com.heramello.mcpe.helloneighbor.core.ReplayRecorder;
+import com.heramello.mcpe.helloneighbor.core.SnapshotBuffer;
+import com.heramello.mcpe.helloneighbor.core.TouchPredictor;
+import com.heramello.mcpe.helloneighbor.core.WorldSnapshot;
+
+/**
+ * The game thread's work on the world: applying input, recording the replay,
+ * ticking with its gameplay events, and publishing the result as a snapshot.
+ * {@link GameView} adds the threads, clock and lifecycle around it; the JVM
+ * allocation tests run this same code. Game thread only.
+ */
+final class GameTicker implements GameWorld.Listener {
+
+    private final GameWorld world;
+    private final PointerChannel pointerChannel;
+    private final GameEventRing events;
+    private final SnapshotBuffer snapshots;
+    // Recent samples, copied into each snapshot for prediction
+    private final TouchPredictor touchPredictor = new TouchPredictor();
+    private final ReplayRecorder recorder = new ReplayRecorder();
+    // Event time of the newest input applied but not yet published, or -1
+    private long pendingInputTime = -1;
+
+    GameTicker(GameWorld world, PointerChannel pointerChannel, GameEventRing events, SnapshotBuffer snapshots) {
+        this.world = world;
+        this.pointerChannel = pointerChannel;
+        this.events = events;
+        this.snapshots = snapshots;
+        world.setListener(this);
+    }
+
+    /** Runs one tick; returns true if it ended the run. */
+    boolean tick() {
+        applyInput();
+        recordInput();
+        return tickWorld();
+    }
+
+    // Moves the ship to the newest touch sample published since the last tick. The
+    // samples are also kept for the render thread, which draws the ship where the
+    // finger is predicted to be; the simulation only ever sees real samples.
+    void applyInput() {
+        if (!pointerChannel.drainTo(touchPredictor)) return;
+
+        world.moveShip(Math.round(pointerChannel.getLatestX()));
+        pendingInputTime = pointerChannel.getLatestTime();
+    }
+
+    void recordInput() {
+        // Only whole runs are recorded; a run restored mid-way is not
+        if (!recorder.isRecording() && world.isReady() && world.getTicks() == 0) {
+            recorder.start(world);
+        }
+        if (recorder.isRecording()) {
+            recorder.recordTick();
+        }
+    }
+
+    boolean tickWorld() {
+        boolean wasOver = world.isGameOver();
+        world.tick();
+        if (wasOver || !world.isGameOver()) return false;
+
+        // Never dropped: the ring keeps slots for it
+        events.publish(GameEventRing.GAME_OVER, world.getTicks(), world.getNearMisses());
+        return true;
+    }
+
+    /** The replay of the run that just ended, or null if it was not recorded whole. */
+    Replay finishRecording() {
+        // After the full tick, so the saved outcome matches what playback sees
+        return recorder.isRecording() ? recorder.finish() : null;
+    }
+
+    /** Copies the tick just simulated into the back snapshot and publishes it. */
+    void publish(float alpha, long frameStart, long updateNanos) {
+        WorldSnapshot snapshot = snapshots.back();
+        snapshot.capture(world);
+        snapshot.captureTouch(touchPredictor);
+        snapshot.setTiming(alpha, frameStart, updateNanos, pendingInputTime);
+        pendingInputTime = -1;
+        snapshots.publish();
+    }
+
+    // World listener callbacks run inside tick(): publish and return, nothing else
+
+    @Override
+    public void onNearMiss(int nearMisses) {
+        events.publish(GameEventRing.NEAR_MISS, world.getTicks(), nearMisses);
+    }
+
+    @Override
+    public void onCollision(long survivalTime, int nearMisses) {
+        events.publish(GameEventRing.COLLISION, world.getTicks(), nearMisses);
+    }
+
+    @Override
+    public void onMilestone(long survivalTime) {
+        events.publish(GameEventRing.MILESTONE, world.getTicks(), survivalTime);
+    }
+}
@@ -1,359 +1,438 @@
 package com.heramello.mcpe.helloneighbor;
 
+import android.app.ActivityManager;
 import android.content.Context;
-import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Path;
+import android.os.Debug;
+import android.os.SystemClock;
 import android.os.Vibrator;
+import android.util.Log;
 import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
-import java.util.ArrayList;
-import java.util.Random;
-
-public class GameView extends SurfaceView implements Runnable {
-
-    private Thread gameThread;
+import com.heramello.mcpe.helloneighbor.core.FixedStepClock;
+import com.heramello.mcpe.helloneighbor.core.FrameStats;
+import com.heramello.mcpe.helloneighbor.core.GameEventRing;
+import com.heramello.mcpe.helloneighbor.core.GameWorld;
+import com.heramello.mcpe.helloneighbor.core.PointerChannel;
+import com.heramello.mcpe.helloneighbor.core.QualityGovernor;
+import com.heramello.mcpe.helloneighbor.core.Replay;
+import com.heramello.mcpe.helloneighbor.core.SnapshotBuffer;
+import com.heramello.mcpe.helloneighbor.core.WorldSnapshot;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Hosts the game on two long-lived threads. The simulation thread ticks the world
+ * and publishes each result as a {@link WorldSnapshot} through a triple-buffered
+ * {@link SnapshotBuffer}; the render thread draws the newest snapshot. Drawing
+ * tick N therefore overlaps simulating tick N+1, and the renderer never reads the
+ * live world. The simulation runs only while the activity is resumed, a surface
+ * exists and the game is not over; otherwise both threads wait on {@link #lock}
+ * without using any CPU, and the world stays frozen at the tick where it stopped.
+ *
+ * Side effects of gameplay (haptics, leaving for the game-over screen) never run
+ * on the game thread: it publishes them to a {@link GameEventRing} and consumer
+ * threads act on them.
+ */
+public class GameView extends SurfaceView implements Runnable, SurfaceHolder.Callback {
+
+    private static final String TAG = "GameView";
+
+    // Tick rate on low-RAM devices. Collisions are swept over each tick's motion,
+    // so the lower rate costs smoothness, not accuracy.
+    private static final int LOW_END_TICKS_PER_SECOND = 30;
+
+    private final Thread gameThread;
+    private final Thread renderThread;
     private SurfaceHolder holder;
-    private boolean isPlaying;
-    private Paint paint;
-
-    private Spaceship spaceship;
-    private ArrayList<Meteor> meteors;
-    private ArrayList<Star> backgroundStars;
-    private Random random;
-    private Vibrator vibrator;
-
-    private long startTime;
-    private long survivalTime;
-    private int nearMisses;
-    private float meteorSpeed = 7f;
-    private int screenWidth, screenHeight;
-
-    private float shakeOffsetX = 0;
-    private float shakeOffsetY = 0;
-    private int shakeFrames = 0;
+    private Renderer renderer;
+
+    // Guards the flags below; both threads wait on it while they cannot run
+    private final Object lock = new Object();
+    private boolean resumed;
+    private boolean hasSurface;
+    private boolean released;
+    private boolean parked;
+    private boolean renderParked;
+    // View size not yet applied to the world, or 0
+    private int pendingWidth, pendingHeight;
+    // View size not yet applied to the renderer, or 0
+    private int pendingRenderWidth, pendingRenderHeight;
+
+    private GameWorld world;
+    private SnapshotBuffer snapshots;
+    private GameEventRing events;
+    private HapticsConsumer haptics;
+    private EventConsumerThread uiEvents;
+    private FixedStepClock clock;
+    private FrameStats stats;
+    private long nextGcSample;
+    private QualityGovernor quality;
+    // Surface scale last requested from the UI thread
+    private float appliedResolutionScale = 1f;
+    private GameTicker ticker;
+
+    // Touch samples handed from the UI thread to the game thread
+    private PointerChannel pointerChannel;
+    // Exponential moving average of the input-to-photon latency, logged at game over
+    private volatile float averageInputLatencyMillis;
 
     private GameActivity gameActivity;
 
-    public GameView(Context context, Vibrator vibrator) {
+    /** {@code savedWorld} is a {@link #saveState()} snapshot to continue from, or null. */
+    public GameView(Context context, Vibrator vibrator, byte[] savedWorld, boolean swarm) {
         super(context);
         gameActivity = (GameActivity) context;
-        this.vibrator = vibrator;
         holder = getHolder();
-        paint = new Paint();
-        paint.setAntiAlias(true);
-        random = new Random();
-        meteors = new ArrayList<>();
-        backgroundStars = new ArrayList<>();
-
-        startTime = System.currentTimeMillis();
-        nearMisses = 0;
+        holder.addCallback(this);
+        world = restoreWorld(savedWorld, swarm, chooseTickRate(context));
+        clock = new FixedStepClock(world.getTicksPerSecond());
+        stats = new FrameStats();
+        quality = new QualityGovernor(clock.getTickNanos());
+        snapshots = new SnapshotBuffer();
+        renderer = CanvasRenderer.create(world.getStarfield(), stats, quality);
+        Log.i(TAG, "Using " + renderer.getName() + " renderer");
+
+        // Room for the historical samples of a few batched move events
+        pointerChannel = new PointerChannel(128);
+
+        events = new GameEventRing(256);
+        ticker = new GameTicker(world, pointerChannel, events, snapshots);
+        haptics = new HapticsConsumer(events, vibrator);
+        haptics.start();
+        uiEvents = new EventConsumerThread("GameEvents", events) {
+            @Override
+            public void onEvent(int type, long tick, long value) {
+                onGameEvent(type, tick, value);
+            }
+        };
+        uiEvents.start();
+
+        gameThread = new Thread(this, "GameLoop");
+        gameThread.start();
+        renderThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                renderLoop();
+            }
+        }, "GameRender");
+        renderThread.start();
     }
 
-    @Override
-    public void run() {
-        while (isPlaying) {
-            update();
-            draw();
-            control();
+    // A restored world keeps the mode and tick rate it was saved with
+    private static GameWorld restoreWorld(byte[] savedWorld, boolean swarm, int ticksPerSecond) {
+        if (savedWorld != null) {
+            try {
+                return GameWorld.fromState(savedWorld);
+            } catch (IOException e) {
+                Log.w(TAG, "Could not restore the saved world, starting over", e);
+            }
         }
+        return new GameWorld(System.nanoTime(), swarm ? ForkJoinPool.commonPool() : null, ticksPerSecond);
     }
 
-    private void update() {
-        if (spaceship == null) return;
-
-        survivalTime = (System.currentTimeMillis() - startTime) / 1000;
-
-        // Increase difficulty
-        meteorSpeed = 7f + (survivalTime * 0.15f);
-
-        // Spawn meteors more frequently
-        if (random.nextInt(100) < 4 + (survivalTime / 10)) {
-            int x = random.nextInt(screenWidth - 100);
-            int size = 40 + random.nextInt(60);
-            meteors.add(new Meteor(x, -100, size, meteorSpeed + random.nextFloat() * 3));
-        }
+    private static int chooseTickRate(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        return activityManager != null && activityManager.isLowRamDevice()
+                ? LOW_END_TICKS_PER_SECOND : FixedStepClock.TICKS_PER_SECOND;
+    }
 
-        // Update meteors
-        for (int i = meteors.size() - 1; i >= 0; i--) {
-            Meteor meteor = meteors.get(i);
-            meteor.update();
-
-            if (meteor.y > screenHeight) {
-                meteors.remove(i);
-            } else if (checkCollision(spaceship, meteor)) {
-                // Direct hit - game over
-                isPlaying = false;
-                gameActivity.gameOver(survivalTime, nearMisses);
-            } else if (isNearMiss(spaceship, meteor)) {
-                // Near miss - shake screen
-                if (!meteor.countedAsNearMiss) {
-                    nearMisses++;
-                    meteor.countedAsNearMiss = true;
-                    triggerShake();
+    @Override
+    public void run() {
+        while (awaitRunnable()) {
+            long frameStart = System.nanoTime();
+            int steps = clock.advance(frameStart);
+            for (int i = 0; i < steps && !world.isGameOver(); i++) {
+                if (ticker.tick()) {
+                    onGameOver();
                 }
             }
-        }
-
-        // Update background stars
-        for (Star star : backgroundStars) {
-            star.y += 2;
-            if (star.y > screenHeight) {
-                star.y = 0;
-                star.x = random.nextInt(screenWidth);
+            long updated = System.nanoTime();
+            if (steps > 0) {
+                stats.record(FrameStats.UPDATE, updated - frameStart);
+                publish(frameStart, updated - frameStart);
             }
-        }
 
-        // Update shake effect
-        if (shakeFrames > 0) {
-            shakeFrames--;
-            shakeOffsetX = (random.nextFloat() - 0.5f) * 20;
-            shakeOffsetY = (random.nextFloat() - 0.5f) * 20;
-        } else {
-            shakeOffsetX = 0;
-            shakeOffsetY = 0;
+            control();
+            stats.record(FrameStats.SLEEP, System.nanoTime() - updated);
         }
     }
 
-    private void draw() {
-        if (holder.getSurface().isValid()) {
-            Canvas canvas = holder.lockCanvas();
-
-            // Apply shake offset
-            canvas.save();
-            canvas.translate(shakeOffsetX, shakeOffsetY);
-
-            // Space background
-            paint.setStyle(Paint.Style.FILL);
-            for (int i = 0; i < screenHeight; i++) {
-                float ratio = (float) i / screenHeight;
-                int color = interpolateColor(0xFF000510, 0xFF1A0520, ratio);
-                paint.setColor(color);
-                canvas.drawRect(0, i, screenWidth, i + 1, paint);
-            }
-
-            // Draw background stars
-            paint.setColor(Color.WHITE);
-            for (Star star : backgroundStars) {
-                canvas.drawCircle(star.x, star.y, star.size, paint);
-            }
+    // Publishes the tick just simulated and wakes the renderer
+    private void publish(long frameStart, long updateNanos) {
+        ticker.publish(clock.alpha(), frameStart, updateNanos);
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+    }
 
-            // Draw meteors
-            for (Meteor meteor : meteors) {
-                drawMeteor(canvas, meteor);
+    // Render thread: draws the newest snapshot each time one is published. Ticks
+    // published faster than they can be drawn are skipped, never queued.
+    private void renderLoop() {
+        while (awaitSnapshot()) {
+            WorldSnapshot snapshot = snapshots.acquire();
+            long start = System.nanoTime();
+            // Interpolation carries on from where the snapshot was taken
+            float alpha = Math.min(1f, snapshot.getAlpha()
+                    + (float) (start - snapshot.getPublishedNanos()) / clock.getTickNanos());
+            // The frame reaches the screen about one tick after it is drawn
+            snapshot.predictShip(SystemClock.uptimeMillis(), clock.getTickNanos() / 1_000_000);
+            if (renderer.renderFrame(holder, snapshot, alpha)) {
+                recordInputLatency(snapshot.getInputTime());
             }
+            long drawn = System.nanoTime();
 
-            // Draw spaceship
-            if (spaceship != null) {
-                drawSpaceship(canvas, spaceship);
+            // The threads overlap, so a frame costs whichever of the two is slower
+            long frameNanos = Math.max(drawn - start, snapshot.getUpdateNanos());
+            stats.record(FrameStats.FRAME, frameNanos);
+            if (quality.record(frameNanos)) {
+                onQualityChanged();
             }
-
-            // Draw HUD
-            drawHUD(canvas);
-
-            canvas.restore();
-            holder.unlockCanvasAndPost(canvas);
+            sampleCounters(snapshot, drawn);
         }
     }
 
-    private void drawSpaceship(Canvas canvas, Spaceship ship) {
-        paint.setStyle(Paint.Style.FILL);
-
-        // Spaceship body (triangular)
-        Path shipPath = new Path();
-        shipPath.moveTo(ship.x + ship.width / 2, ship.y); // Top point
-        shipPath.lineTo(ship.x + ship.width, ship.y + ship.height); // Bottom right
-        shipPath.lineTo(ship.x, ship.y + ship.height); // Bottom left
-        shipPath.close();
-
-        paint.setColor(Color.rgb(100, 200, 255));
-        canvas.drawPath(shipPath, paint);
-
-        // Spaceship cockpit
-        paint.setColor(Color.rgb(50, 150, 255));
-        canvas.drawCircle(ship.x + ship.width / 2, ship.y + ship.height / 2, ship.width / 4, paint);
-
-        // Engine glow
-        paint.setColor(Color.rgb(255, 100, 50));
-        canvas.drawCircle(ship.x + ship.width / 4, ship.y + ship.height - 5, 8, paint);
-        canvas.drawCircle(ship.x + 3 * ship.width / 4, ship.y + ship.height - 5, 8, paint);
-
-        // Outline
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(3);
-        paint.setColor(Color.WHITE);
-        canvas.drawPath(shipPath, paint);
-    }
-
-    private void drawMeteor(Canvas canvas, Meteor meteor) {
-        paint.setStyle(Paint.Style.FILL);
-
-        // Meteor body (irregular circle)
-        paint.setColor(Color.rgb(139, 69, 19));
-        canvas.drawCircle(meteor.x + meteor.size / 2, meteor.y + meteor.size / 2, meteor.size / 2, paint);
-
-        // Craters
-        paint.setColor(Color.rgb(100, 50, 20));
-        canvas.drawCircle(meteor.x + meteor.size * 0.3f, meteor.y + meteor.size * 0.3f, meteor.size * 0.15f, paint);
-        canvas.drawCircle(meteor.x + meteor.size * 0.7f, meteor.y + meteor.size * 0.6f, meteor.size * 0.1f, paint);
-
-        // Fire trail
-        paint.setColor(Color.argb(100, 255, 100, 0));
-        for (int i = 0; i < 3; i++) {
-            float trailY = meteor.y - (i + 1) * 15;
-            float trailSize = meteor.size * (0.4f - i * 0.1f);
-            canvas.drawCircle(meteor.x + meteor.size / 2, trailY, trailSize, paint);
+    // After the tick that ended the run; the loop parks once this frame is done
+    private void onGameOver() {
+        Replay replay = ticker.finishRecording();
+        if (replay != null) {
+            ReplayStore.getInstance(getContext()).save(replay);
         }
+    }
 
-        // Danger glow for near misses
-        if (isNearMiss(spaceship, meteor)) {
-            paint.setColor(Color.argb(50, 255, 0, 0));
-            canvas.drawCircle(meteor.x + meteor.size / 2, meteor.y + meteor.size / 2, meteor.size * 0.8f, paint);
+    // UI side effects, on the "GameEvents" consumer thread
+    private void onGameEvent(int type, long tick, long value) {
+        if (type == GameEventRing.GAME_OVER) {
+            // Formatting the stats is slow, so it happens here and not on the game thread.
+            // The game thread wrote the counters before publishing, and has stopped since.
+            Log.i(TAG, "Game over after " + tick + " ticks, dropped " + clock.getDroppedTicks()
+                    + ", input latency " + averageInputLatencyMillis + "ms, quality "
+                    + QualityGovernor.levelName(quality.getLevel()) + " after " + quality.getLevelChanges()
+                    + " changes, " + events.getDropped() + " events dropped\n" + stats.dump());
+            final long survivalTime = tick / world.getTicksPerSecond();
+            final int nearMisses = (int) value;
+            post(new Runnable() {
+                @Override
+                public void run() {
+                    gameActivity.gameOver(survivalTime, nearMisses);
+                }
+            });
+        } else if (type == GameEventRing.MILESTONE) {
+            Log.i(TAG, "Milestone: " + value + "s survived");
         }
     }
 
-    private void drawHUD(Canvas canvas) {
-        paint.setStyle(Paint.Style.FILL);
-
-        // Survival time
-        paint.setTextSize(50);
-        paint.setColor(Color.argb(150, 0, 255, 255));
-        canvas.drawText("TIME: " + survivalTime + "s", 52, 72, paint);
-        paint.setColor(Color.rgb(0, 255, 255));
-        canvas.drawText("TIME: " + survivalTime + "s", 50, 70, paint);
-
-        // Near misses
-        paint.setTextSize(40);
-        paint.setColor(Color.argb(150, 255, 165, 0));
-        canvas.drawText("⚠ " + nearMisses, 52, 132, paint);
-        paint.setColor(Color.rgb(255, 165, 0));
-        canvas.drawText("⚠ " + nearMisses, 50, 130, paint);
+    // Only the surface size needs help from outside the renderer; it can only be
+    // changed on the UI thread
+    private void onQualityChanged() {
+        Log.i(TAG, "Quality now " + QualityGovernor.levelName(quality.getLevel()));
+        final float scale = quality.resolutionScale();
+        if (scale == appliedResolutionScale) return;
+
+        appliedResolutionScale = scale;
+        post(new Runnable() {
+            @Override
+            public void run() {
+                if (scale < 1f && getWidth() > 0) {
+                    holder.setFixedSize(Math.round(getWidth() * scale), Math.round(getHeight() * scale));
+                } else {
+                    holder.setSizeFromLayout();
+                }
+            }
+        });
     }
 
-    private int interpolateColor(int color1, int color2, float ratio) {
-        int a = (int) ((Color.alpha(color1) * (1 - ratio) + Color.alpha(color2) * ratio));
-        int r = (int) ((Color.red(color1) * (1 - ratio) + Color.red(color2) * ratio));
-        int g = (int) ((Color.green(color1) * (1 - ratio) + Color.green(color2) * ratio));
-        int b = (int) ((Color.blue(color1) * (1 - ratio) + Color.blue(color2) * ratio));
-        return Color.argb(a, r, g, b);
+    private void sampleCounters(WorldSnapshot snapshot, long now) {
+        stats.sample(snapshot.getMeteors().size(), snapshot.getTotalSpawns(), now);
+        if (now >= nextGcSample) {
+            // Parsing the runtime stat allocates, so only do it once per second
+            nextGcSample = now + 1_000_000_000L;
+            String gcCount = Debug.getRuntimeStat("art.gc.gc-count");
+            if (gcCount != null) stats.setGcCount(Long.parseLong(gcCount));
+        }
     }
 
-    private void triggerShake() {
-        shakeFrames = 10;
-        if (vibrator != null && vibrator.hasVibrator()) {
-            vibrator.vibrate(100);
-        }
+    // Input-to-photon latency: from the touch event to the post of the first frame showing it
+    private void recordInputLatency(long inputTime) {
+        if (inputTime < 0) return;
+
+        long latency = SystemClock.uptimeMillis() - inputTime;
+        averageInputLatencyMillis += (latency - averageInputLatencyMillis) * 0.1f;
     }
 
     private void control() {
+        long wait = clock.nanosUntilNextTick(System.nanoTime());
+        if (wait <= 0) return;
         try {
-            Thread.sleep(17);
+            Thread.sleep(wait / 1_000_000L, (int) (wait % 1_000_000L));
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            // release(); the loop sees it on its next pass
         }
     }
 
-    public void pause() {
-        isPlaying = false;
-        try {
-            if (gameThread != null) {
-                gameThread.join();
+    // Blocks the game thread until it may run a frame. Returns false once released.
+    private boolean awaitRunnable() {
+        synchronized (lock) {
+            boolean waited = false;
+            while (!released && !(resumed && hasSurface && !world.isGameOver())) {
+                if (!parked) {
+                    parked = true;
+                    lock.notifyAll();
+                }
+                waited = true;
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    // Only release() interrupts, and it sets released first
+                }
             }
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            parked = false;
+            if (released) return false;
+            if (pendingWidth > 0) {
+                world.resize(pendingWidth, pendingHeight);
+                pendingWidth = pendingHeight = 0;
+            }
+            // Time spent parked is not game time; don't try to catch up on it
+            if (waited) clock.reset(System.nanoTime());
+            return true;
         }
     }
 
-    public void resume() {
-        isPlaying = true;
-        gameThread = new Thread(this);
-        gameThread.start();
+    // Blocks the render thread until there is a new snapshot it may draw. Returns
+    // false once released.
+    private boolean awaitSnapshot() {
+        synchronized (lock) {
+            while (!released && !(resumed && hasSurface && snapshots.hasFresh())) {
+                // Notify only on the way in, or the two threads would keep waking each other
+                if (!renderParked) {
+                    renderParked = true;
+                    lock.notifyAll();
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    // Only release() interrupts, and it sets released first
+                }
+            }
+            renderParked = false;
+            if (released) return false;
+            // The renderer belongs to the render thread, which resizes it between frames
+            if (pendingRenderWidth > 0) {
+                renderer.onSizeChanged(pendingRenderWidth, pendingRenderHeight);
+                pendingRenderWidth = pendingRenderHeight = 0;
+            }
+            return true;
+        }
     }
 
-    @Override
-    public boolean onTouchEvent(MotionEvent event) {
-        if (spaceship != null) {
-            float touchX = event.getX();
-            spaceship.x = touchX - spaceship.width / 2;
-
-            if (spaceship.x < 0) spaceship.x = 0;
-            if (spaceship.x > screenWidth - spaceship.width) {
-                spaceship.x = screenWidth - spaceship.width;
+    // Called on the UI thread with the lock held: returns once both threads have
+    // finished their current frame and parked
+    private void awaitParked() {
+        while ((!parked && gameThread.isAlive()) || (!renderParked && renderThread.isAlive())) {
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             }
         }
-        return true;
     }
 
-    @Override
-    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
-        super.onSizeChanged(w, h, oldw, oldh);
-        screenWidth = w;
-        screenHeight = h;
-        spaceship = new Spaceship(w / 2 - 40, h - 200, 80, 100);
-
-        // Initialize background stars
-        for (int i = 0; i < 50; i++) {
-            backgroundStars.add(new Star(
-                    random.nextInt(w),
-                    random.nextInt(h),
-                    1 + random.nextFloat() * 2
-            ));
+    public void pause() {
+        synchronized (lock) {
+            resumed = false;
+            awaitParked();
         }
     }
 
-    private boolean checkCollision(Spaceship s, Meteor m) {
-        float dx = (s.x + s.width / 2) - (m.x + m.size / 2);
-        float dy = (s.y + s.height / 2) - (m.y + m.size / 2);
-        float distance = (float) Math.sqrt(dx * dx + dy * dy);
-        return distance < (s.width / 2 + m.size / 2) * 0.7f;
+    public void resume() {
+        synchronized (lock) {
+            resumed = true;
+            lock.notifyAll();
+        }
     }
 
-    private boolean isNearMiss(Spaceship s, Meteor m) {
-        float dx = (s.x + s.width / 2) - (m.x + m.size / 2);
-        float dy = (s.y + s.height / 2) - (m.y + m.size / 2);
-        float distance = (float) Math.sqrt(dx * dx + dy * dy);
-        float nearMissRange = (s.width / 2 + m.size / 2) * 1.5f;
-        float collisionRange = (s.width / 2 + m.size / 2) * 0.7f;
-        return distance < nearMissRange && distance > collisionRange;
+    /** Stops both game threads for good; call from the activity's onDestroy. */
+    public void release() {
+        synchronized (lock) {
+            released = true;
+            lock.notifyAll();
+        }
+        gameThread.interrupt();
+        renderThread.interrupt();
+        try {
+            gameThread.join();
+            renderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        haptics.shutdown();
+        uiEvents.shutdown();
+        renderer.release();
     }
 
-    class Spaceship {
-        float x, y, width, height;
+    /**
+     * Snapshot of the world for onSaveInstanceState. Taken while the game thread
+     * is parked, so it is never a half-finished tick.
+     */
+    public byte[] saveState() {
+        synchronized (lock) {
+            awaitParked();
+            return world.saveState();
+        }
+    }
 
-        Spaceship(float x, float y, float width, float height) {
-            this.x = x;
-            this.y = y;
-            this.width = width;
-            this.height = height;
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        synchronized (lock) {
+            hasSurface = true;
+            lock.notifyAll();
         }
     }
 
-    class Meteor {
-        float x, y, size, speed;
-        boolean countedAsNearMiss;
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        // The renderer follows the view size (onSizeChanged); a surface resized by
+        // the quality governor is scaled to at draw time
+    }
 
-        Meteor(float x, float y, float size, float speed) {
-            this.x = x;
-            this.y = y;
-            this.size = size;
-            this.speed = speed;
-            this.countedAsNearMiss = false;
+    // The surface must not be drawn to after this returns, so wait for the frame in flight
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        synchronized (lock) {
+            hasSurface = false;
+            awaitParked();
         }
+    }
 
-        void update() {
-            y += speed;
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        // Debug gesture: a three-finger tap toggles the frame stats overlay
+        if (event.getActionMasked() == MotionEvent.ACTION_POINTER_DOWN && event.getPointerCount() == 3) {
+            stats.toggleOverlay();
         }
+        // Never touch game state here; the game thread picks the sample up next tick
+        // Batched move events carry the samples since the last one; hand them all
+        // over, oldest first, so the game thread can see how fast the finger moves
+        for (int h = 0, n = event.getHistorySize(); h < n; h++) {
+            pointerChannel.offer(event.getHistoricalX(h), event.getHistoricalEventTime(h));
+        }
+        pointerChannel.offer(event.getX(), event.getEventTime());
+        return true;
     }
 
-    class Star {
-        float x, y, size;
-
-        Star(float x, float y, float size) {
-            this.x = x;
-            this.y = y;
-            this.size = size;
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        synchronized (lock) {
+            // The world belongs to the game thread, which applies this before its next
+            // frame. A restored world already has this size; resizing would reset the ship.
+            if (w != world.getWidth() || h != world.getHeight()) {
+                pendingWidth = w;
+                pendingHeight = h;
+            }
+            pendingRenderWidth = w;
+            pendingRenderHeight = h;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.os.SystemClock;
+import android.os.Vibrator;
+import com.heramello.mcpe.helloneighbor.core.GameEventRing;
+
+/**
+ * Turns near misses into vibrations off the game thread. Near misses that arrive
+ * together, or within {@link #MIN_INTERVAL_MILLIS} of the last buzz, are merged
+ * into one, so a swarm of close calls does not queue up back-to-back vibrations.
+ */
+class HapticsConsumer extends EventConsumerThread {
+
+    private static final long VIBRATION_MILLIS = 100;
+    private static final long MIN_INTERVAL_MILLIS = 150;
+
+    private final Vibrator vibrator;
+    private int pendingNearMisses;
+    private long lastVibration = -MIN_INTERVAL_MILLIS;
+
+    HapticsConsumer(GameEventRing ring, Vibrator vibrator) {
+        super("Haptics", ring);
+        this.vibrator = vibrator;
+    }
+
+    @Override
+    public void onEvent(int type, long tick, long value) {
+        if (type == GameEventRing.NEAR_MISS) {
+            pendingNearMisses++;
+        }
+    }
+
+    @Override
+    protected void onBatchEnd() {
+        if (pendingNearMisses == 0) return;
+        pendingNearMisses = 0;
+
+        long now = SystemClock.uptimeMillis();
+        if (now - lastVibration < MIN_INTERVAL_MILLIS) return;
+        if (vibrator != null && vibrator.hasVibrator()) {
+            vibrator.vibrate(VIBRATION_MILLIS);
+            lastVibration = now;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.graphics.Canvas;
+import android.os.Build;
+import android.util.Log;
+import android.view.Surface;
+import android.view.SurfaceHolder;
+import androidx.annotation.RequiresApi;
+import com.heramello.mcpe.helloneighbor.core.FrameStats;
+import com.heramello.mcpe.helloneighbor.core.QualityGovernor;
+import com.heramello.mcpe.helloneighbor.core.Starfield;
+
+/**
+ * GPU-backed canvas from {@link Surface#lockHardwareCanvas()}. If the surface
+ * refuses a hardware canvas the renderer falls back to software locking for the
+ * rest of its life.
+ */
+@RequiresApi(Build.VERSION_CODES.O)
+public class HardwareCanvasRenderer extends CanvasRenderer {
+
+    private static final String TAG = "HardwareCanvasRenderer";
+
+    private boolean hardwareFailed;
+    private boolean lockedHardware;
+
+    public HardwareCanvasRenderer(Starfield starfield, FrameStats stats, QualityGovernor quality) {
+        super(starfield, stats, quality);
+    }
+
+    @Override
+    protected Canvas lockCanvas(SurfaceHolder holder) {
+        lockedHardware = false;
+        if (!hardwareFailed) {
+            try {
+                Canvas canvas = holder.getSurface().lockHardwareCanvas();
+                lockedHardware = true;
+                return canvas;
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                Log.w(TAG, "Hardware canvas unavailable, falling back to software", e);
+                hardwareFailed = true;
+            }
+        }
+        return holder.lockCanvas();
+    }
+
+    @Override
+    protected void unlockCanvasAndPost(SurfaceHolder holder, Canvas canvas) {
+        if (lockedHardware) {
+            holder.getSurface().unlockCanvasAndPost(canvas);
+        } else {
+            holder.unlockCanvasAndPost(canvas);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return hardwareFailed ? "hardware (software fallback)" : "hardware";
+    }
+}
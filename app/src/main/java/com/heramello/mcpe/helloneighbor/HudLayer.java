@@ -0,0 +1,117 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+
+/**
+ * The HUD (survival time and near misses) as an offscreen layer. The shown values
+ * change about once a second, so the text and its drop shadow are rasterized into
+ * a bitmap only when one of them changes; every other frame composites the layer
+ * with a single drawBitmap. Not thread-safe: owned by the render thread.
+ */
+class HudLayer {
+
+    private static final float TIME_TEXT_SIZE = 50;
+    private static final float TIME_X = 50, TIME_Y = 70;
+    private static final float NEAR_MISS_TEXT_SIZE = 40;
+    private static final float NEAR_MISS_X = 50, NEAR_MISS_Y = 130;
+    private static final float SHADOW_OFFSET = 2;
+    // Room around the text for antialiasing
+    private static final int PADDING = 4;
+    // The bitmap grows in steps, so a counter gaining a digit rarely reallocates it
+    private static final int WIDTH_STEP = 64;
+    // Fits a four-digit survival time, so a normal run allocates the layer once
+    private static final int MIN_WIDTH = 5 * WIDTH_STEP;
+
+    private final HudText timeText = new HudText("TIME: ", "s");
+    private final HudText nearMissText = new HudText("⚠ ", "");
+    private final Paint paint;
+    private final Paint layerPaint;
+
+    // Layer bounds in view pixels
+    private final float left;
+    private final float top;
+    private final int height;
+    private int width;
+
+    private Bitmap bitmap;
+    private Canvas layerCanvas;
+    private boolean dirty = true;
+
+    HudLayer() {
+        paint = new Paint();
+        paint.setAntiAlias(true);
+        paint.setStyle(Paint.Style.FILL);
+        // Filtered, since a reduced-resolution surface scales the layer down
+        layerPaint = new Paint();
+        layerPaint.setFilterBitmap(true);
+
+        // Glyphs stay within a text size above the baseline and half of one below
+        // it, so the bounds follow from the layout alone, not from font metrics
+        left = Math.min(TIME_X, NEAR_MISS_X) - PADDING;
+        top = TIME_Y - TIME_TEXT_SIZE - PADDING;
+        float bottom = NEAR_MISS_Y + SHADOW_OFFSET + NEAR_MISS_TEXT_SIZE / 2 + PADDING;
+        height = (int) Math.ceil(bottom - top);
+        width = MIN_WIDTH;
+    }
+
+    /** Sets the shown values; the layer is re-rasterized on the next draw if they changed. */
+    void update(long survivalTime, int nearMisses) {
+        // Both labels must be set, so no short-circuit
+        dirty |= timeText.set(survivalTime) | nearMissText.set(nearMisses);
+    }
+
+    void draw(Canvas canvas) {
+        if (dirty) {
+            rasterize();
+            dirty = false;
+        }
+        canvas.drawBitmap(bitmap, left, top, layerPaint);
+    }
+
+    private void rasterize() {
+        paint.setTextSize(TIME_TEXT_SIZE);
+        float textWidth = TIME_X + paint.measureText(timeText.chars(), 0, timeText.length());
+        paint.setTextSize(NEAR_MISS_TEXT_SIZE);
+        textWidth = Math.max(textWidth,
+                NEAR_MISS_X + paint.measureText(nearMissText.chars(), 0, nearMissText.length()));
+        int needed = (int) Math.ceil(textWidth + SHADOW_OFFSET + PADDING - left);
+        if (layerCanvas == null || needed > width) {
+            width = Math.max(width, (needed + WIDTH_STEP - 1) / WIDTH_STEP * WIDTH_STEP);
+            if (bitmap != null) bitmap.recycle();
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            layerCanvas = new Canvas(bitmap);
+            layerCanvas.translate(-left, -top);
+        } else {
+            layerCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        }
+
+        // Survival time
+        paint.setTextSize(TIME_TEXT_SIZE);
+        paint.setColor(Color.argb(150, 0, 255, 255));
+        layerCanvas.drawText(timeText.chars(), 0, timeText.length(),
+                TIME_X + SHADOW_OFFSET, TIME_Y + SHADOW_OFFSET, paint);
+        paint.setColor(Color.rgb(0, 255, 255));
+        layerCanvas.drawText(timeText.chars(), 0, timeText.length(), TIME_X, TIME_Y, paint);
+
+        // Near misses
+        paint.setTextSize(NEAR_MISS_TEXT_SIZE);
+        paint.setColor(Color.argb(150, 255, 165, 0));
+        layerCanvas.drawText(nearMissText.chars(), 0, nearMissText.length(),
+                NEAR_MISS_X + SHADOW_OFFSET, NEAR_MISS_Y + SHADOW_OFFSET, paint);
+        paint.setColor(Color.rgb(255, 165, 0));
+        layerCanvas.drawText(nearMissText.chars(), 0, nearMissText.length(), NEAR_MISS_X, NEAR_MISS_Y, paint);
+    }
+
+    /** Layer size in pixels; known before the bitmap exists. */
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,67 @@
+package com.heramello.mcpe.helloneighbor;
+
+/**
+ * A HUD label of the form prefix + number + suffix kept in a reusable char[],
+ * so it can be handed to Canvas.drawText(char[], ...) without building a String.
+ * The digits are only re-formatted when the value actually changes.
+ */
+public class HudText {
+
+    // Long.MIN_VALUE has 20 chars including the sign
+    private static final int MAX_DIGITS = 20;
+
+    private final char[] chars;
+    private final int prefixLength;
+    private final String suffix;
+    private int length;
+    private long value;
+    private boolean formatted;
+
+    public HudText(String prefix, String suffix) {
+        chars = new char[prefix.length() + MAX_DIGITS + suffix.length()];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        prefixLength = prefix.length();
+        this.suffix = suffix;
+    }
+
+    /** Returns true if the text changed. */
+    public boolean set(long newValue) {
+        if (formatted && newValue == value) {
+            return false;
+        }
+        value = newValue;
+        formatted = true;
+
+        int pos = prefixLength;
+        if (newValue < 0) {
+            chars[pos++] = '-';
+        }
+        // Count digits first so they can be written right to left in place
+        int digits = 1;
+        for (long v = newValue / 10; v != 0; v /= 10) {
+            digits++;
+        }
+        long v = newValue;
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            chars[i] = (char) ('0' + Math.abs(v % 10));
+            v /= 10;
+        }
+        pos += digits;
+        suffix.getChars(0, suffix.length(), chars, pos);
+        length = pos + suffix.length();
+        return true;
+    }
+
+    public char[] chars() {
+        return chars;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -1,29 +1,44 @@
 package com.heramello.mcpe.helloneighbor;
 
 import android.content.DialogInterface;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
-import java.util.ArrayList;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import com.heramello.mcpe.helloneighbor.core.RunLog;
+import com.heramello.mcpe.helloneighbor.core.RunRecord;
+import java.util.Locale;
 
 public class LeaderboardActivity extends AppCompatActivity {
 
-    private TextView tvLeaderboard;
-    private Button btnBack, btnClear;
+    private TextView tvStatsSummary, tvEmpty;
+    private RecyclerView rvLeaderboard;
+    private LeaderboardAdapter adapter;
+    private Button btnBack, btnMode, btnClear;
+    // Runs of one mode are shown at a time
+    private int mode = RunRecord.MODE_CLASSIC;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_leaderboard);
 
-        tvLeaderboard = findViewById(R.id.tvLeaderboard);
+        tvStatsSummary = findViewById(R.id.tvStatsSummary);
+        tvEmpty = findViewById(R.id.tvEmpty);
+        rvLeaderboard = findViewById(R.id.rvLeaderboard);
+        adapter = new LeaderboardAdapter(ScoreRepository.getInstance(this));
+        rvLeaderboard.setLayoutManager(new LinearLayoutManager(this));
+        rvLeaderboard.setHasFixedSize(true);
+        rvLeaderboard.setAdapter(adapter);
         btnBack = findViewById(R.id.btnBack);
+        btnMode = findViewById(R.id.btnMode);
         btnClear = findViewById(R.id.btnClear);
 
+        showMode();
         loadScores();
 
         btnBack.setOnClickListener(new View.OnClickListener() {
@@ -33,6 +48,15 @@ public class LeaderboardActivity extends AppCompatActivity {
             }
         });
 
+        btnMode.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                mode = mode == RunRecord.MODE_CLASSIC ? RunRecord.MODE_SWARM : RunRecord.MODE_CLASSIC;
+                showMode();
+                loadScores();
+            }
+        });
+
         btnClear.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
@@ -56,61 +80,47 @@ public class LeaderboardActivity extends AppCompatActivity {
     }
 
     private void clearScores() {
-        SharedPreferences prefs = getSharedPreferences("NovaRushScores", MODE_PRIVATE);
-        prefs.edit().clear().apply();
-        loadScores();
+        ScoreRepository.getInstance(this).clear(new Runnable() {
+            @Override
+            public void run() {
+                loadScores();
+            }
+        });
     }
 
-    private void loadScores() {
-        SharedPreferences prefs = getSharedPreferences("NovaRushScores", MODE_PRIVATE);
-        String scoresString = prefs.getString("scores", "");
-
-        if (scoresString.isEmpty()) {
-            tvLeaderboard.setText("No scores yet!\nStart playing to set records!");
-            return;
-        }
+    private void showMode() {
+        btnMode.setText(mode == RunRecord.MODE_SWARM ? "SWARM" : "CLASSIC");
+    }
 
-        String[] scoreArray = scoresString.split(";");
-        ArrayList<GameScore> scores = new ArrayList<>();
-        for (String s : scoreArray) {
-            String[] parts = s.split(",");
-            if (parts.length == 3) {
-                scores.add(new GameScore(
-                        Integer.parseInt(parts[0]),
-                        Long.parseLong(parts[1]),
-                        Integer.parseInt(parts[2])
-                ));
+    // Only the stats are fetched here; the adapter pages rows in as they are shown
+    private void loadScores() {
+        final int requestMode = mode;
+        ScoreRepository.getInstance(this).loadStats(mode, new ScoreRepository.Callback<RunStats>() {
+            @Override
+            public void onResult(RunStats stats) {
+                // Switched again while loading
+                if (requestMode != mode) return;
+                showStats(stats);
             }
-        }
-
-        StringBuilder display = new StringBuilder();
-        for (int i = 0; i < scores.size(); i++) {
-            GameScore gs = scores.get(i);
-            String medal = "";
-            if (i == 0) medal = "🥇 ";
-            else if (i == 1) medal = "🥈 ";
-            else if (i == 2) medal = "🥉 ";
-            else medal = (i + 1) + ". ";
-
-            display.append(medal)
-                    .append("Score: ").append(gs.score)
-                    .append(" | ").append(gs.time).append("s")
-                    .append(" | ⚠").append(gs.nearMisses)
-                    .append("\n\n");
-        }
-
-        tvLeaderboard.setText(display.toString());
+        });
     }
 
-    class GameScore {
-        int score;
-        long time;
-        int nearMisses;
-
-        GameScore(int score, long time, int nearMisses) {
-            this.score = score;
-            this.time = time;
-            this.nearMisses = nearMisses;
+    private void showStats(RunStats stats) {
+        adapter.reset(mode, stats.runs);
+        if (stats.runs == 0) {
+            tvEmpty.setVisibility(View.VISIBLE);
+            rvLeaderboard.setVisibility(View.GONE);
+            tvStatsSummary.setVisibility(View.GONE);
+            return;
         }
+
+        tvEmpty.setVisibility(View.GONE);
+        rvLeaderboard.setVisibility(View.VISIBLE);
+        tvStatsSummary.setVisibility(View.VISIBLE);
+        tvStatsSummary.setText(String.format(Locale.US,
+                "Runs: %d | Best: %d\nAverage: %.0f | Last %d: %.0f",
+                stats.runs, stats.bestScore, stats.averageScore,
+                Math.min(stats.runs, RunLog.RECENT_RUNS),
+                stats.recentAverageScore));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,136 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import androidx.recyclerview.widget.RecyclerView;
+import com.heramello.mcpe.helloneighbor.core.RunRecord;
+import java.util.List;
+
+/**
+ * Leaderboard rows, fetched from {@link ScoreRepository} a page at a time as they
+ * scroll into view. Only a window of pages around the visible rows is kept.
+ */
+public class LeaderboardAdapter extends RecyclerView.Adapter<LeaderboardAdapter.RowHolder> {
+
+    static final int PAGE_SIZE = 50;
+    // Start loading the next page this many rows before the current one ends
+    private static final int PREFETCH_DISTANCE = 15;
+    private static final int MAX_CACHED_PAGES = 8;
+
+    private final ScoreRepository repository;
+    private final SparseArray<List<GameScore>> pages = new SparseArray<>();
+    private final SparseBooleanArray loading = new SparseBooleanArray();
+    private int mode = RunRecord.MODE_CLASSIC;
+    private int total;
+    // Bumped on every reset, so pages requested before it are ignored
+    private int generation;
+
+    public LeaderboardAdapter(ScoreRepository repository) {
+        this.repository = repository;
+    }
+
+    /** Drops every loaded page and shows {@code total} rows of {@code mode}'s runs. */
+    public void reset(int mode, int total) {
+        this.mode = mode;
+        this.total = total;
+        generation++;
+        pages.clear();
+        loading.clear();
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public int getItemCount() {
+        return total;
+    }
+
+    @Override
+    public RowHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_leaderboard_row, parent, false);
+        return new RowHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(RowHolder holder, int position) {
+        int page = position / PAGE_SIZE;
+        List<GameScore> rows = pages.get(page);
+        if (rows != null && position % PAGE_SIZE < rows.size()) {
+            holder.bind(position, rows.get(position % PAGE_SIZE));
+        } else {
+            holder.bindPlaceholder(position);
+            requestPage(page);
+        }
+
+        if (position % PAGE_SIZE >= PAGE_SIZE - PREFETCH_DISTANCE && (page + 1) * PAGE_SIZE < total) {
+            requestPage(page + 1);
+        }
+    }
+
+    private void requestPage(final int page) {
+        if (pages.get(page) != null || loading.get(page)) return;
+
+        loading.put(page, true);
+        final int requestGeneration = generation;
+        repository.loadPage(mode, page * PAGE_SIZE, PAGE_SIZE, new ScoreRepository.Callback<List<GameScore>>() {
+            @Override
+            public void onResult(List<GameScore> rows) {
+                if (requestGeneration != generation) return;
+
+                loading.delete(page);
+                pages.put(page, rows);
+                evictFarPages(page);
+                notifyItemRangeChanged(page * PAGE_SIZE, rows.size());
+            }
+        });
+    }
+
+    // Keeps memory flat on long lists: drops the cached page farthest from the newest one
+    private void evictFarPages(int around) {
+        while (pages.size() > MAX_CACHED_PAGES) {
+            int farthest = 0;
+            for (int i = 1; i < pages.size(); i++) {
+                if (Math.abs(pages.keyAt(i) - around) > Math.abs(pages.keyAt(farthest) - around)) {
+                    farthest = i;
+                }
+            }
+            pages.removeAt(farthest);
+        }
+    }
+
+    static class RowHolder extends RecyclerView.ViewHolder {
+        private final TextView tvRank;
+        private final TextView tvScore;
+        private final TextView tvDetail;
+
+        RowHolder(View itemView) {
+            super(itemView);
+            tvRank = itemView.findViewById(R.id.tvRank);
+            tvScore = itemView.findViewById(R.id.tvScore);
+            tvDetail = itemView.findViewById(R.id.tvDetail);
+        }
+
+        void bind(int position, GameScore score) {
+            tvRank.setText(rankLabel(position));
+            tvScore.setText("Score: " + score.score);
+            tvDetail.setText(score.time + "s | ⚠" + score.nearMisses);
+        }
+
+        void bindPlaceholder(int position) {
+            tvRank.setText(rankLabel(position));
+            tvScore.setText("…");
+            tvDetail.setText("");
+        }
+
+        private static String rankLabel(int position) {
+            if (position == 0) return "🥇";
+            if (position == 1) return "🥈";
+            if (position == 2) return "🥉";
+            return (position + 1) + ".";
+        }
+    }
+}
@@ -8,7 +8,7 @@ import androidx.appcompat.app.AppCompatActivity;
 
 public class MenuActivity extends AppCompatActivity {
 
-    private Button btnPlay, btnLeaderboard, btnHowToPlay, btnExit;
+    private Button btnPlay, btnSwarm, btnLeaderboard, btnHowToPlay, btnExit;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -16,6 +16,7 @@ public class MenuActivity extends AppCompatActivity {
         setContentView(R.layout.activity_menu);
 
         btnPlay = findViewById(R.id.btnPlay);
+        btnSwarm = findViewById(R.id.btnSwarm);
         btnLeaderboard = findViewById(R.id.btnLeaderboard);
         btnHowToPlay = findViewById(R.id.btnHowToPlay);
         btnExit = findViewById(R.id.btnExit);
@@ -28,6 +29,16 @@ public class MenuActivity extends AppCompatActivity {
             }
         });
 
+        btnSwarm.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                Intent intent = new Intent(MenuActivity.this, GameActivity.class);
+                intent.putExtra(GameActivity.EXTRA_SWARM, true);
+                startActivity(intent);
+                overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
+            }
+        });
+
         btnLeaderboard.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
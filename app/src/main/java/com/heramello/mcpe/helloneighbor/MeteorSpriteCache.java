@@ -0,0 +1,208 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import java.util.Arrays;
+
+/**
+ * Pre-rasterized meteor sprites: body, craters, fire trail and optional danger
+ * glow rendered once per quantized size into a bitmap, so drawing a meteor is a
+ * single drawBitmap instead of seven alpha-blended circles.
+ *
+ * Sprites are keyed by size bucket and by the glow/trail flags. The cache keeps
+ * the total bitmap size under a byte budget by evicting the least recently used
+ * sprite. Lookups that hit never allocate. Not thread-safe: owned by the render thread.
+ */
+public class MeteorSpriteCache {
+
+    // Meteor sizes are rounded to this many pixels, so a sprite is at most
+    // SIZE_STEP / 2 px off the exact body radius
+    private static final int SIZE_STEP = 2;
+    private static final int MAX_SIZE = 256;
+    private static final int BUCKETS = MAX_SIZE / SIZE_STEP + 1;
+
+    private static final int FLAG_GLOW = 1;
+    private static final int FLAG_TRAIL = 2;
+    private static final int FLAG_COUNT = 4;
+
+    public static final long DEFAULT_BUDGET_BYTES = 6L * 1024 * 1024;
+
+    private final Bitmap[] sprites = new Bitmap[BUCKETS * FLAG_COUNT];
+    // Sprite top-left relative to the meteor center
+    private final float[] offsetX = new float[BUCKETS * FLAG_COUNT];
+    private final float[] offsetY = new float[BUCKETS * FLAG_COUNT];
+    // 0 for a slot with no sprite
+    private final int[] spriteWidth = new int[BUCKETS * FLAG_COUNT];
+    private final int[] spriteHeight = new int[BUCKETS * FLAG_COUNT];
+    private final long[] lastUsed = new long[BUCKETS * FLAG_COUNT];
+    // Sprites dropped since the last recycleEvicted()
+    private Bitmap[] evicted = new Bitmap[16];
+    private int evictedCount;
+
+    private final long budgetBytes;
+    private final Paint paint;
+    private long usedBytes;
+    private long useCounter;
+
+    public MeteorSpriteCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        paint = new Paint();
+        paint.setAntiAlias(true);
+        paint.setStyle(Paint.Style.FILL);
+    }
+
+    public static int keyFor(float size, boolean glow, boolean trail) {
+        int bucket = (int) (size / SIZE_STEP + 0.5f);
+        if (bucket >= BUCKETS) bucket = BUCKETS - 1;
+        if (bucket < 1) bucket = 1;
+        return bucket * FLAG_COUNT + (glow ? FLAG_GLOW : 0) + (trail ? FLAG_TRAIL : 0);
+    }
+
+    /** Returns the sprite for {@code key}, rasterizing it on first use. */
+    public Bitmap get(int key) {
+        lastUsed[key] = ++useCounter;
+        if (spriteWidth[key] == 0) {
+            build(key);
+        }
+        return sprites[key];
+    }
+
+    public float getOffsetX(int key) {
+        return offsetX[key];
+    }
+
+    public float getOffsetY(int key) {
+        return offsetY[key];
+    }
+
+    /** Size of the sprite for {@code key} in pixels; 0 wide if it has none. */
+    int getSpriteWidth(int key) {
+        return spriteWidth[key];
+    }
+
+    int getSpriteHeight(int key) {
+        return spriteHeight[key];
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public void clear() {
+        for (int i = 0; i < sprites.length; i++) {
+            if (spriteWidth[i] != 0) evict(i);
+        }
+        usedBytes = 0;
+    }
+
+    /**
+     * Recycles the sprites evicted since the last call. Call it once the frame is
+     * posted: a sprite evicted mid-frame may have been drawn earlier in that frame.
+     */
+    public void recycleEvicted() {
+        for (int i = 0; i < evictedCount; i++) {
+            if (evicted[i] != null) evicted[i].recycle();
+            evicted[i] = null;
+        }
+        evictedCount = 0;
+    }
+
+    private void build(int key) {
+        float size = (key / FLAG_COUNT) * SIZE_STEP;
+        boolean glow = (key & FLAG_GLOW) != 0;
+        boolean trail = (key & FLAG_TRAIL) != 0;
+
+        // Bounds of everything drawMeteor() paints, relative to the meteor's top-left
+        float left = 0, top = 0, right = size, bottom = size;
+        if (trail) {
+            for (int t = 0; t < 3; t++) {
+                float trailSize = size * (0.4f - t * 0.1f);
+                top = Math.min(top, -(t + 1) * 15 - trailSize);
+            }
+        }
+        if (glow) {
+            float glowExtent = size * 0.3f;
+            left = Math.min(left, -glowExtent);
+            top = Math.min(top, -glowExtent);
+            right = Math.max(right, size + glowExtent);
+            bottom = Math.max(bottom, size + glowExtent);
+        }
+        // One pixel of padding for antialiasing
+        left = (float) Math.floor(left) - 1;
+        top = (float) Math.floor(top) - 1;
+        int width = (int) Math.ceil(right - left) + 1;
+        int height = (int) Math.ceil(bottom - top) + 1;
+
+        int bytes = width * height * 4;
+        evictFor(bytes, key);
+
+        Bitmap sprite = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(sprite);
+        canvas.translate(-left, -top);
+        drawMeteor(canvas, size, glow, trail);
+
+        sprites[key] = sprite;
+        offsetX[key] = left - size / 2;
+        offsetY[key] = top - size / 2;
+        spriteWidth[key] = width;
+        spriteHeight[key] = height;
+        usedBytes += bytes;
+    }
+
+    // Same primitives, order and colors as the old per-frame vector drawing
+    private void drawMeteor(Canvas canvas, float size, boolean glow, boolean trail) {
+        // Meteor body (irregular circle)
+        paint.setColor(Color.rgb(139, 69, 19));
+        canvas.drawCircle(size / 2, size / 2, size / 2, paint);
+
+        // Craters
+        paint.setColor(Color.rgb(100, 50, 20));
+        canvas.drawCircle(size * 0.3f, size * 0.3f, size * 0.15f, paint);
+        canvas.drawCircle(size * 0.7f, size * 0.6f, size * 0.1f, paint);
+
+        // Fire trail
+        if (trail) {
+            paint.setColor(Color.argb(100, 255, 100, 0));
+            for (int t = 0; t < 3; t++) {
+                float trailY = -(t + 1) * 15;
+                float trailSize = size * (0.4f - t * 0.1f);
+                canvas.drawCircle(size / 2, trailY, trailSize, paint);
+            }
+        }
+
+        // Danger glow for near misses
+        if (glow) {
+            paint.setColor(Color.argb(50, 255, 0, 0));
+            canvas.drawCircle(size / 2, size / 2, size * 0.8f, paint);
+        }
+    }
+
+    // Drops least recently used sprites until {@code bytes} more fit in the budget
+    private void evictFor(long bytes, int keep) {
+        while (usedBytes + bytes > budgetBytes) {
+            int oldest = -1;
+            for (int i = 0; i < sprites.length; i++) {
+                if (spriteWidth[i] != 0 && i != keep
+                        && (oldest < 0 || lastUsed[i] < lastUsed[oldest])) {
+                    oldest = i;
+                }
+            }
+            if (oldest < 0) return;
+
+            usedBytes -= spriteWidth[oldest] * spriteHeight[oldest] * 4;
+            evict(oldest);
+        }
+    }
+
+    private void evict(int key) {
+        // Only reached while building a sprite, which allocates anyway
+        if (evictedCount == evicted.length) {
+            evicted = Arrays.copyOf(evicted, evictedCount * 2);
+        }
+        evicted[evictedCount++] = sprites[key];
+        sprites[key] = null;
+        spriteWidth[key] = 0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.graphics.Bitmap;
+
+/**
+ * Rendering caches that outlive a single game, so the splash screen can build them
+ * before the first frame needs them and later games start with them warm.
+ *
+ * A cache is handed to one renderer at a time: {@link #takeSpriteCache()} moves it
+ * to the caller (who then owns it on its render thread) and
+ * {@link #recycleSpriteCache} gives it back once that renderer is done.
+ */
+final class RenderCaches {
+
+    // Meteors spawn between these sizes (GameWorld.tick)
+    private static final int MIN_METEOR_SIZE = 40;
+    private static final int MAX_METEOR_SIZE = 100;
+
+    private static MeteorSpriteCache spriteCache;
+    private static Bitmap background;
+
+    private RenderCaches() {
+    }
+
+    /**
+     * Rasterizes the full-quality meteor sprites and the background gradient for a
+     * screen of the given height. Runs on any background thread.
+     */
+    static void prebuild(int screenHeight) {
+        MeteorSpriteCache cache = takeSpriteCache();
+        for (int size = MIN_METEOR_SIZE; size < MAX_METEOR_SIZE; size++) {
+            cache.get(MeteorSpriteCache.keyFor(size, false, true));
+            cache.get(MeteorSpriteCache.keyFor(size, true, true));
+        }
+        // Not drawn into any frame yet
+        cache.recycleEvicted();
+        recycleSpriteCache(cache);
+
+        Bitmap strip = CanvasRenderer.buildBackgroundStrip(screenHeight);
+        synchronized (RenderCaches.class) {
+            background = strip;
+        }
+    }
+
+    static synchronized MeteorSpriteCache takeSpriteCache() {
+        MeteorSpriteCache cache = spriteCache;
+        spriteCache = null;
+        return cache != null ? cache : new MeteorSpriteCache(MeteorSpriteCache.DEFAULT_BUDGET_BYTES);
+    }
+
+    static synchronized void recycleSpriteCache(MeteorSpriteCache cache) {
+        spriteCache = cache;
+    }
+
+    /** The prebuilt gradient strip if it was made for {@code height}, otherwise null. */
+    static synchronized Bitmap getBackground(int height) {
+        Bitmap strip = background;
+        return strip != null && strip.getHeight() == height ? strip : null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.view.SurfaceHolder;
+import com.heramello.mcpe.helloneighbor.core.WorldSnapshot;
+
+/**
+ * Draws {@link WorldSnapshot}s of the game onto a surface. Implementations differ
+ * only in how the surface is locked and posted; the frame content is the same for
+ * all of them.
+ */
+public interface Renderer {
+
+    /**
+     * Renders {@code snapshot} with moving objects interpolated by {@code alpha}.
+     * Returns false if the surface was not available and nothing was posted.
+     */
+    boolean renderFrame(SurfaceHolder holder, WorldSnapshot snapshot, float alpha);
+
+    /** Called on the render thread, between frames. */
+    void onSizeChanged(int width, int height);
+
+    String getName();
+
+    /** Hands shared caches back; the renderer is not used again afterwards. */
+    void release();
+}
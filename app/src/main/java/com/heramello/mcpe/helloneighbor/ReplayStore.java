@@ -0,0 +1,90 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.content.Context;
+import android.util.Log;
+import com.heramello.mcpe.helloneighbor.core.Replay;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Saves finished runs to {@code files/replays/} in the background, keeping only the
+ * most recent {@link #MAX_REPLAYS}. Replays can be pulled off a device and checked
+ * with {@link com.heramello.mcpe.helloneighbor.core.ReplayPlayer} to reproduce a bug
+ * or verify a score.
+ */
+public class ReplayStore {
+
+    private static final String TAG = "ReplayStore";
+
+    static final int MAX_REPLAYS = 20;
+    private static final String DIRECTORY = "replays";
+    private static final String EXTENSION = ".nrrp";
+
+    private static ReplayStore instance;
+
+    private final File directory;
+    private final ExecutorService executor;
+
+    private ReplayStore(Context context) {
+        directory = new File(context.getApplicationContext().getFilesDir(), DIRECTORY);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    public static synchronized ReplayStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReplayStore(context);
+        }
+        return instance;
+    }
+
+    public void save(final Replay replay) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                write(replay);
+                prune();
+            }
+        });
+    }
+
+    private void write(Replay replay) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.w(TAG, "Could not create " + directory);
+            return;
+        }
+        File file = new File(directory, System.currentTimeMillis() + "-" + Long.toHexString(replay.getSeed()) + EXTENSION);
+        OutputStream out = null;
+        try {
+            out = new BufferedOutputStream(new FileOutputStream(file));
+            replay.writeTo(out);
+            Log.i(TAG, "Saved " + replay.getTickCount() + " ticks in " + replay.getInputLength() + " bytes to " + file.getName());
+        } catch (IOException e) {
+            Log.w(TAG, "Could not save replay", e);
+            file.delete();
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    // File names start with the save time, so name order is age order
+    private void prune() {
+        String[] names = directory.list();
+        if (names == null || names.length <= MAX_REPLAYS) return;
+
+        Arrays.sort(names);
+        for (int i = 0; i < names.length - MAX_REPLAYS; i++) {
+            new File(directory, names[i]).delete();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.heramello.mcpe.helloneighbor;
+
+/** Aggregates over every stored run of one mode, and where the run just added ranks among them. */
+public class RunStats {
+    final int runs;
+    final int bestScore;
+    final double averageScore;
+    final double recentAverageScore;
+
+    // Only set by ScoreRepository.addScore; rank is -1 otherwise
+    final boolean isNewRecord;
+    final int rank;
+    final double percentileRank;
+
+    RunStats(int runs, int bestScore, double averageScore, double recentAverageScore,
+             boolean isNewRecord, int rank, double percentileRank) {
+        this.runs = runs;
+        this.bestScore = bestScore;
+        this.averageScore = averageScore;
+        this.recentAverageScore = recentAverageScore;
+        this.isNewRecord = isNewRecord;
+        this.rank = rank;
+        this.percentileRank = percentileRank;
+    }
+}
@@ -0,0 +1,224 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import com.heramello.mcpe.helloneighbor.core.RunLog;
+import com.heramello.mcpe.helloneighbor.core.RunRecord;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Process-wide store of every finished run, backed by a {@link RunLog}.
+ *
+ * All file access happens on one background thread, so the log needs no locking
+ * and the main thread never touches the disk. Results are delivered to callbacks
+ * on the main thread. Runs are kept apart by game mode ({@link RunRecord#MODE_CLASSIC}
+ * or {@link RunRecord#MODE_SWARM}). Statistics come from the log's index header;
+ * a mode's ranking is built on its first leaderboard page or finished run.
+ */
+public class ScoreRepository {
+
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    private static final String TAG = "ScoreRepository";
+
+    private static final String LOG_FILE = "runs.log";
+    private static final String INDEX_FILE = "runs.idx";
+
+    // Pre-repository storage: "score,time,misses;..." in SharedPreferences
+    private static final String LEGACY_PREFS = "NovaRushScores";
+    private static final String LEGACY_KEY = "scores";
+
+    private static ScoreRepository instance;
+
+    private final Context context;
+    private final ExecutorService executor;
+    private final Handler mainHandler;
+
+    // Only touched on the executor thread; null if the log could not be opened
+    private RunLog runLog;
+    private boolean loaded;
+
+    private ScoreRepository(Context context) {
+        this.context = context.getApplicationContext();
+        executor = Executors.newSingleThreadExecutor();
+        mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    public static synchronized ScoreRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new ScoreRepository(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Opens the store in the background so the first real request finds it ready.
+     * The returned future completes once it is open.
+     */
+    public Future<?> warmUp() {
+        return executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                ensureLoaded();
+            }
+        });
+    }
+
+    /** Delivers runs of {@code mode} ranked {@code offset} to {@code offset + limit - 1}, best first. */
+    public void loadPage(final int mode, final int offset, final int limit,
+                         final Callback<List<GameScore>> callback) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                ensureLoaded();
+                List<GameScore> page = Collections.emptyList();
+                if (runLog != null) {
+                    try {
+                        List<RunRecord> runs = runLog.top(mode, offset, limit);
+                        page = new ArrayList<>(runs.size());
+                        for (RunRecord run : runs) {
+                            page.add(new GameScore(run.score, run.time, run.nearMisses));
+                        }
+                    } catch (IOException e) {
+                        Log.w(TAG, "Could not read runs", e);
+                    }
+                }
+                deliver(callback, page);
+            }
+        });
+    }
+
+    public void loadStats(final int mode, final Callback<RunStats> callback) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                ensureLoaded();
+                deliver(callback, stats(mode, false, -1, 0));
+            }
+        });
+    }
+
+    /**
+     * Records a finished run of {@code mode}; the callback receives that mode's updated
+     * stats and the run's rank among them.
+     */
+    public void addScore(final GameScore score, final int mode, final Callback<RunStats> callback) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                ensureLoaded();
+                if (runLog == null) {
+                    deliver(callback, stats(mode, false, -1, 0));
+                    return;
+                }
+                boolean isNewRecord = runLog.size(mode) == 0 || score.score > runLog.getBestScore(mode);
+                double percentileRank = 0;
+                int rank = -1;
+                try {
+                    // Share of earlier runs this one beat
+                    percentileRank = runLog.percentileRank(mode, score.score);
+                    rank = runLog.append(new RunRecord(score.score, score.time, score.nearMisses,
+                            System.currentTimeMillis(), mode));
+                } catch (IOException e) {
+                    Log.w(TAG, "Could not save run", e);
+                }
+                deliver(callback, stats(mode, isNewRecord, rank, percentileRank));
+            }
+        });
+    }
+
+    public void clear(final Runnable done) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                ensureLoaded();
+                if (runLog != null) {
+                    try {
+                        runLog.clear();
+                    } catch (IOException e) {
+                        Log.w(TAG, "Could not clear runs", e);
+                    }
+                }
+                if (done != null) mainHandler.post(done);
+            }
+        });
+    }
+
+    private RunStats stats(int mode, boolean isNewRecord, int rank, double percentileRank) {
+        if (runLog == null) {
+            return new RunStats(0, 0, 0, 0, false, -1, 0);
+        }
+        return new RunStats(runLog.size(mode), runLog.getBestScore(mode), runLog.getAverageScore(mode),
+                runLog.getRecentAverageScore(mode), isNewRecord, rank, percentileRank);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        loaded = true;
+
+        File dir = context.getFilesDir();
+        RunLog log = new RunLog(new File(dir, LOG_FILE), new File(dir, INDEX_FILE));
+        try {
+            log.open();
+        } catch (IOException e) {
+            Log.e(TAG, "Could not open run log", e);
+            return;
+        }
+        runLog = log;
+        if (runLog.size() == 0) {
+            migrateLegacyScores();
+        }
+    }
+
+    // One-time import of the old SharedPreferences string; the key is removed afterwards
+    private void migrateLegacyScores() {
+        SharedPreferences prefs = context.getSharedPreferences(LEGACY_PREFS, Context.MODE_PRIVATE);
+        String scoresString = prefs.getString(LEGACY_KEY, "");
+        if (scoresString.isEmpty()) return;
+
+        int migrated = 0;
+        for (String s : scoresString.split(";")) {
+            String[] parts = s.split(",");
+            if (parts.length == 3) {
+                try {
+                    runLog.append(new RunRecord(
+                            Integer.parseInt(parts[0]),
+                            Long.parseLong(parts[1]),
+                            Integer.parseInt(parts[2]),
+                            0
+                    ));
+                    migrated++;
+                } catch (NumberFormatException e) {
+                    Log.w(TAG, "Skipping malformed legacy score: " + s);
+                } catch (IOException e) {
+                    Log.w(TAG, "Could not migrate legacy score", e);
+                    return;
+                }
+            }
+        }
+        prefs.edit().remove(LEGACY_KEY).apply();
+        Log.i(TAG, "Migrated " + migrated + " legacy scores");
+    }
+
+    private <T> void deliver(final Callback<T> callback, final T result) {
+        if (callback == null) return;
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                callback.onResult(result);
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.graphics.Canvas;
+import android.view.SurfaceHolder;
+import com.heramello.mcpe.helloneighbor.core.FrameStats;
+import com.heramello.mcpe.helloneighbor.core.QualityGovernor;
+import com.heramello.mcpe.helloneighbor.core.Starfield;
+
+/** CPU-rasterized canvas from {@link SurfaceHolder#lockCanvas()}; works on every API level. */
+public class SoftwareCanvasRenderer extends CanvasRenderer {
+
+    public SoftwareCanvasRenderer(Starfield starfield, FrameStats stats, QualityGovernor quality) {
+        super(starfield, stats, quality);
+    }
+
+    @Override
+    protected Canvas lockCanvas(SurfaceHolder holder) {
+        return holder.lockCanvas();
+    }
+
+    @Override
+    protected void unlockCanvasAndPost(SurfaceHolder holder, Canvas canvas) {
+        holder.unlockCanvasAndPost(canvas);
+    }
+
+    @Override
+    public String getName() {
+        return "software";
+    }
+}
@@ -2,15 +2,31 @@ package com.heramello.mcpe.helloneighbor;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.os.Handler;
+import android.util.DisplayMetrics;
 import android.view.animation.Animation;
 import android.view.animation.AnimationUtils;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
+import com.heramello.mcpe.helloneighbor.core.FixedStepClock;
+import com.heramello.mcpe.helloneighbor.core.FrameStats;
+import com.heramello.mcpe.helloneighbor.core.GameWorld;
+import com.heramello.mcpe.helloneighbor.core.PointerChannel;
+import com.heramello.mcpe.helloneighbor.core.QualityGovernor;
+import com.heramello.mcpe.helloneighbor.core.ReplayRecorder;
+import com.heramello.mcpe.helloneighbor.core.TouchPredictor;
+import com.heramello.mcpe.helloneighbor.core.WorldSnapshot;
+import java.util.concurrent.ExecutionException;
 
 public class SplashActivity extends AppCompatActivity {
 
-    private static final int SPLASH_DURATION = 3000;
+    // Long enough for the title pulse to register, short enough not to feel like a wait
+    private static final long MIN_DISPLAY_MILLIS = 800;
+    private static final long MAX_DISPLAY_MILLIS = 3000;
+
+    // Simulated ticks used to warm up the engine: ten seconds of play
+    private static final int WARM_UP_TICKS = 600;
+
+    private StartupPipeline pipeline;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -21,14 +37,83 @@ public class SplashActivity extends AppCompatActivity {
         Animation pulse = AnimationUtils.loadAnimation(this, R.anim.pulse);
         tvTitle.startAnimation(pulse);
 
-        new Handler().postDelayed(new Runnable() {
+        // The game runs fullscreen, so its view is the size of the whole display
+        DisplayMetrics metrics = new DisplayMetrics();
+        getWindowManager().getDefaultDisplay().getRealMetrics(metrics);
+        final int screenWidth = metrics.widthPixels;
+        final int screenHeight = metrics.heightPixels;
+        final ScoreRepository scores = ScoreRepository.getInstance(this);
+
+        pipeline = new StartupPipeline(MIN_DISPLAY_MILLIS, MAX_DISPLAY_MILLIS)
+                .add("scores", new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            scores.warmUp().get();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (ExecutionException e) {
+                            throw new RuntimeException(e.getCause());
+                        }
+                    }
+                })
+                .add("render-caches", new Runnable() {
+                    @Override
+                    public void run() {
+                        RenderCaches.prebuild(screenHeight);
+                    }
+                })
+                .add("engine", new Runnable() {
+                    @Override
+                    public void run() {
+                        warmUpEngine(screenWidth, screenHeight);
+                    }
+                });
+        pipeline.start(new StartupPipeline.Listener() {
             @Override
-            public void run() {
+            public void onStartupFinished(boolean timedOut) {
                 Intent intent = new Intent(SplashActivity.this, MenuActivity.class);
                 startActivity(intent);
                 finish();
                 overridePendingTransition(android.R.anim.fade_in, android.R.anim.fade_out);
             }
-        }, SPLASH_DURATION);
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        pipeline.cancel();
+    }
+
+    // Loads and links the classes the game loop uses and gives the runtime a first
+    // profile of the hot tick path, so the first game does not start cold
+    private static void warmUpEngine(int width, int height) {
+        GameWorld world = new GameWorld(System.nanoTime());
+        world.resize(width, height);
+        FixedStepClock clock = new FixedStepClock();
+        FrameStats stats = new FrameStats();
+        QualityGovernor quality = new QualityGovernor(FixedStepClock.TICK_NANOS);
+        PointerChannel pointer = new PointerChannel(64);
+        TouchPredictor predictor = new TouchPredictor();
+        WorldSnapshot snapshot = new WorldSnapshot();
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.start(world);
+        clock.reset(System.nanoTime());
+        for (int i = 0; i < WARM_UP_TICKS && !world.isGameOver(); i++) {
+            long start = System.nanoTime();
+            pointer.offer(width / 2f + (i % 200) - 100, i);
+            if (pointer.drainTo(predictor)) world.moveShip(Math.round(pointer.getLatestX()));
+            recorder.recordTick();
+            world.tick();
+            snapshot.capture(world);
+            snapshot.captureTouch(predictor);
+            snapshot.predictShip(i, FixedStepClock.TICK_NANOS / 1_000_000);
+            long busy = System.nanoTime() - start;
+            stats.record(FrameStats.UPDATE, busy);
+            quality.record(busy);
+        }
+        recorder.finish();
+        world.saveState();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,159 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Runs named warm-up tasks in parallel while a splash screen is showing and reports
+ * back on the main thread as soon as they are all done. The splash stays up for at
+ * least the minimum display time, and never longer than the maximum: tasks still
+ * running then keep going in the background.
+ *
+ * Each task's wall time is logged under {@value #TAG}, along with the total. On a
+ * timeout the tasks still running are logged as such.
+ */
+public class StartupPipeline {
+
+    public interface Listener {
+        /** Called once on the main thread; {@code timedOut} if some task was still running. */
+        void onStartupFinished(boolean timedOut);
+    }
+
+    private static final String TAG = "Startup";
+
+    private final long minDisplayMillis;
+    private final long maxDisplayMillis;
+    private final List<String> names = new ArrayList<>();
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // -1 until the task finishes
+    private AtomicLongArray taskNanos;
+    private AtomicInteger remaining;
+    private ExecutorService executor;
+    private Listener listener;
+    private long startMillis;
+    // Main thread only
+    private boolean finished;
+
+    public StartupPipeline(long minDisplayMillis, long maxDisplayMillis) {
+        this.minDisplayMillis = minDisplayMillis;
+        this.maxDisplayMillis = maxDisplayMillis;
+    }
+
+    public StartupPipeline add(String name, Runnable task) {
+        names.add(name);
+        tasks.add(task);
+        return this;
+    }
+
+    /** Starts every task; call from the main thread. */
+    public void start(Listener listener) {
+        this.listener = listener;
+        startMillis = SystemClock.uptimeMillis();
+        taskNanos = new AtomicLongArray(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            taskNanos.set(i, -1);
+        }
+        remaining = new AtomicInteger(tasks.size());
+
+        // Leave a core for the UI thread's splash animation
+        int threads = Math.max(1, Math.min(tasks.size(), Runtime.getRuntime().availableProcessors() - 1));
+        executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < tasks.size(); i++) {
+            final int index = i;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    runTask(index);
+                }
+            });
+        }
+        executor.shutdown();
+
+        mainHandler.postDelayed(timeout, maxDisplayMillis);
+        if (tasks.isEmpty()) {
+            mainHandler.post(allTasksDone);
+        }
+    }
+
+    /** Drops the pending callback, e.g. when the splash is destroyed early. */
+    public void cancel() {
+        finished = true;
+        mainHandler.removeCallbacks(timeout);
+        mainHandler.removeCallbacks(allTasksDone);
+        mainHandler.removeCallbacks(minimumShown);
+    }
+
+    private void runTask(int index) {
+        long start = System.nanoTime();
+        try {
+            tasks.get(index).run();
+        } catch (RuntimeException e) {
+            // A failed warm-up only costs speed later; never block startup on it
+            Log.w(TAG, "Warm-up task " + names.get(index) + " failed", e);
+        }
+        taskNanos.set(index, System.nanoTime() - start);
+        if (remaining.decrementAndGet() == 0) {
+            mainHandler.post(allTasksDone);
+        }
+    }
+
+    private final Runnable allTasksDone = new Runnable() {
+        @Override
+        public void run() {
+            long elapsed = SystemClock.uptimeMillis() - startMillis;
+            logTimings(false, elapsed);
+            mainHandler.postDelayed(minimumShown, Math.max(0, minDisplayMillis - elapsed));
+        }
+    };
+
+    private final Runnable minimumShown = new Runnable() {
+        @Override
+        public void run() {
+            finish(false);
+        }
+    };
+
+    private final Runnable timeout = new Runnable() {
+        @Override
+        public void run() {
+            logTimings(true, SystemClock.uptimeMillis() - startMillis);
+            finish(true);
+        }
+    };
+
+    private void finish(boolean timedOut) {
+        if (finished) return;
+        finished = true;
+        mainHandler.removeCallbacks(timeout);
+        listener.onStartupFinished(timedOut);
+    }
+
+    private void logTimings(boolean timedOut, long elapsedMillis) {
+        StringBuilder sb = new StringBuilder(timedOut ? "Warm-up timed out after " : "Warm-up finished in ")
+                .append(elapsedMillis).append("ms:");
+        for (int i = 0; i < names.size(); i++) {
+            sb.append(' ').append(names.get(i)).append('=');
+            long nanos = taskNanos.get(i);
+            if (nanos < 0) {
+                sb.append("running");
+            } else {
+                sb.append(nanos / 1_000_000L).append("ms");
+            }
+        }
+        if (timedOut) {
+            Log.w(TAG, sb.toString());
+        } else {
+            Log.i(TAG, sb.toString());
+        }
+    }
+}
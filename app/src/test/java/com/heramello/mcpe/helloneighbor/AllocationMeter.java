@@ -0,0 +1,110 @@
+package com.heramello.mcpe.helloneighbor;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Counts bytes allocated by the current thread, split into named phases. Call
+ * {@link #begin()} before the first phase of a frame and {@link #end(int)} after
+ * each one; a phase is charged everything allocated since the previous mark.
+ *
+ * The JVM itself allocates on the thread while it is still compiling the code,
+ * so measure only after a warm-up that ran clean (see {@link #total()}).
+ */
+final class AllocationMeter {
+
+    private static final int CALIBRATION_READS = 1_000;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final long threadId;
+    private final String[] phases;
+    private final long[] bytes;
+    // Frames in which the phase allocated at all
+    private final int[] allocatingFrames;
+    // What one read of the counter costs by itself, subtracted from every phase
+    private final long readOverhead;
+    private long mark;
+    private int frames;
+
+    AllocationMeter(String... phases) {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("JVM cannot measure thread allocations");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        threadId = Thread.currentThread().getId();
+        this.phases = phases;
+        bytes = new long[phases.length];
+        allocatingFrames = new int[phases.length];
+
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_READS; i++) {
+            long first = read();
+            overhead = Math.min(overhead, read() - first);
+        }
+        readOverhead = overhead;
+    }
+
+    void begin() {
+        frames++;
+        mark = read();
+    }
+
+    void end(int phase) {
+        long now = read();
+        long allocated = now - mark - readOverhead;
+        if (allocated > 0) {
+            bytes[phase] += allocated;
+            allocatingFrames[phase]++;
+        }
+        mark = now;
+    }
+
+    /** Forgets everything measured so far, e.g. after warm-up. */
+    void reset() {
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = 0;
+            allocatingFrames[i] = 0;
+        }
+        frames = 0;
+    }
+
+    /** Bytes allocated by all phases since the last reset. */
+    long total() {
+        long total = 0;
+        for (long b : bytes) {
+            total += b;
+        }
+        return total;
+    }
+
+    double bytesPerFrame(int phase) {
+        return frames == 0 ? 0 : (double) bytes[phase] / frames;
+    }
+
+    /** Phases that exceed their budget in bytes per frame, or null if none does. */
+    String overBudget(double[] budgets) {
+        StringBuilder over = null;
+        for (int i = 0; i < phases.length; i++) {
+            if (bytesPerFrame(i) > budgets[i]) {
+                over = over == null ? new StringBuilder() : over.append(", ");
+                over.append(phases[i]);
+            }
+        }
+        return over == null ? null : over.toString();
+    }
+
+    /** One line per phase: bytes per frame, total, and how many frames allocated. */
+    String report() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < phases.length; i++) {
+            sb.append(String.format(Locale.US, "%-9s %10.2f B/frame %12d B total in %d frames%n",
+                    phases[i], bytesPerFrame(i), bytes[i], allocatingFrames[i]));
+        }
+        return sb.append(frames).append(" frames").toString();
+    }
+
+    private long read() {
+        return threads.getThreadAllocatedBytes(threadId);
+    }
+}
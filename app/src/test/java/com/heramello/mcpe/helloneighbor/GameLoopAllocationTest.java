@@ -0,0 +1,175 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.graphics.Canvas;
+import com.heramello.mcpe.helloneighbor.core.FixedStepClock;
+import com.heramello.mcpe.helloneighbor.core.FrameStats;
+import com.heramello.mcpe.helloneighbor.core.GameEventRing;
+import com.heramello.mcpe.helloneighbor.core.GameWorld;
+import com.heramello.mcpe.helloneighbor.core.PointerChannel;
+import com.heramello.mcpe.helloneighbor.core.QualityGovernor;
+import com.heramello.mcpe.helloneighbor.core.SnapshotBuffer;
+import com.heramello.mcpe.helloneighbor.core.WorldSnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs whole game frames on the JVM for thousands of ticks after warm-up and
+ * fails if any phase allocates more than its budget. The game thread's part is
+ * {@link GameTicker}, the code GameView runs: input with the touch predictor,
+ * replay recording, the tick with its events, and the snapshot hand-off. Then
+ * come the ship prediction, scene (with the real sprite cache), HUD, debug
+ * overlay and the per-frame bookkeeping. android.jar is inert in unit tests
+ * (see testOptions in build.gradle.kts), so every byte counted comes from our
+ * own code. The failure message names the phases that regressed.
+ */
+public class GameLoopAllocationTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 2400;
+    // The JIT allocates while it compiles; warm up in rounds until one runs clean.
+    // Unit tests run with -Xbatch, so no compile can still be pending after that.
+    private static final int WARMUP_ROUND_TICKS = 10_000;
+    private static final int MAX_WARMUP_ROUNDS = 5;
+    private static final int MEASURED_TICKS = 5_000;
+
+    private static final int INPUT = 0;
+    private static final int RECORD = 1;
+    private static final int UPDATE = 2;
+    private static final int PUBLISH = 3;
+    private static final int PREDICT = 4;
+    private static final int SCENE = 5;
+    private static final int HUD = 6;
+    private static final int OVERLAY = 7;
+    private static final int STATS = 8;
+    private static final String[] PHASES =
+            {"input", "record", "update", "publish", "predict", "scene", "hud", "overlay", "stats"};
+    // Allowed bytes per frame for each phase. The replay keeps a byte or two per
+    // tick, in 4 KB blocks; nothing else may allocate at all.
+    private static final double[] BUDGETS = {0, 3, 0, 0, 0, 0, 0, 0, 0};
+
+    private MeteorSpriteCache previousCache;
+
+    @Before
+    public void setUp() {
+        // A fresh real cache, so its first sprites are built during warm-up
+        previousCache = RenderCaches.takeSpriteCache();
+        RenderCaches.recycleSpriteCache(new MeteorSpriteCache(MeteorSpriteCache.DEFAULT_BUDGET_BYTES));
+    }
+
+    @After
+    public void tearDown() {
+        RenderCaches.recycleSpriteCache(previousCache);
+    }
+
+    @Test
+    public void classicGame_steadyStateDoesNotAllocate() {
+        assertNoSteadyStateAllocation(new GameWorld(42));
+    }
+
+    @Test
+    public void lowTickRateGame_steadyStateDoesNotAllocate() {
+        assertNoSteadyStateAllocation(new GameWorld(42, null, 30));
+    }
+
+    private void assertNoSteadyStateAllocation(GameWorld world) {
+        Frame frame = new Frame(world);
+        AllocationMeter meter = new AllocationMeter(PHASES);
+
+        int tick = 0;
+        for (int round = 0; round < MAX_WARMUP_ROUNDS; round++) {
+            meter.reset();
+            for (int end = tick + WARMUP_ROUND_TICKS; tick < end; tick++) {
+                frame.run(tick, meter);
+            }
+            if (meter.total() == 0) break;
+        }
+        meter.reset();
+        for (int end = tick + MEASURED_TICKS; tick < end; tick++) {
+            frame.run(tick, meter);
+        }
+
+        String regressed = meter.overBudget(BUDGETS);
+        assertNull("Per-frame allocation in: " + regressed + "\n" + meter.report(), regressed);
+    }
+
+    // One frame, in the order GameView's threads run it
+    private static final class Frame {
+
+        private final GameWorld world;
+        private final PointerChannel pointer = new PointerChannel(128);
+        private final GameEventRing.Consumer events;
+        private final GameEventRing.Handler ignore = new GameEventRing.Handler() {
+            @Override
+            public void onEvent(int type, long tick, long value) {
+            }
+        };
+        private final SnapshotBuffer snapshots = new SnapshotBuffer();
+        private final GameTicker ticker;
+        private final FrameStats stats = new FrameStats();
+        private final QualityGovernor quality;
+        private final CanvasRenderer renderer;
+        private final Canvas canvas = new Canvas();
+        private final long tickMillis;
+
+        Frame(GameWorld world) {
+            this.world = world;
+            world.resize(WIDTH, HEIGHT);
+            GameEventRing ring = new GameEventRing(256);
+            events = ring.addConsumer();
+            ticker = new GameTicker(world, pointer, ring, snapshots);
+            stats.toggleOverlay();
+            FixedStepClock clock = new FixedStepClock(world.getTicksPerSecond());
+            tickMillis = clock.getTickNanos() / 1_000_000;
+            quality = new QualityGovernor(clock.getTickNanos());
+            // No onSizeChanged(): the background strip is a real bitmap
+            renderer = new SoftwareCanvasRenderer(world.getStarfield(), stats, quality);
+        }
+
+        void run(int tick, AllocationMeter meter) {
+            // Other threads' work, not measured: the UI thread's touch samples (a
+            // batched move event with one historical sample) and the event consumers
+            long now = tick * tickMillis;
+            // Sweep the ship across the screen so near misses and hits keep happening
+            pointer.offer((tick * 7 - 3) % WIDTH, now - tickMillis / 2);
+            pointer.offer(tick * 7 % WIDTH, now);
+            events.drain(ignore);
+
+            meter.begin();
+            ticker.applyInput();
+            meter.end(INPUT);
+
+            ticker.recordInput();
+            meter.end(RECORD);
+
+            ticker.tickWorld();
+            meter.end(UPDATE);
+
+            ticker.publish(0.5f, tick, 0);
+            WorldSnapshot snapshot = snapshots.acquire();
+            meter.end(PUBLISH);
+
+            snapshot.predictShip(now + tickMillis / 2, tickMillis);
+            meter.end(PREDICT);
+
+            renderer.drawScene(canvas, snapshot, 0.5f);
+            meter.end(SCENE);
+
+            renderer.drawHUD(canvas, snapshot);
+            meter.end(HUD);
+
+            renderer.drawOverlay(canvas);
+            meter.end(OVERLAY);
+
+            long frameNanos = (tick % 3 + 1) * FixedStepClock.TICK_NANOS / 2;
+            stats.record(FrameStats.UPDATE, frameNanos / 3);
+            stats.record(FrameStats.DRAW, frameNanos);
+            stats.record(FrameStats.FRAME, frameNanos);
+            quality.record(frameNanos);
+            stats.sample(snapshot.getMeteors().size(), snapshot.getTotalSpawns(), tick * FixedStepClock.TICK_NANOS);
+            meter.end(STATS);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.heramello.mcpe.helloneighbor;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HudTextTest {
+
+    @Test
+    public void set_formatsValues() {
+        HudText text = new HudText("TIME: ", "s");
+        assertTrue(text.set(0));
+        assertEquals("TIME: 0s", text.toString());
+        assertTrue(text.set(1234));
+        assertEquals("TIME: 1234s", text.toString());
+        assertFalse(text.set(1234));
+        assertTrue(text.set(-56));
+        assertEquals("TIME: -56s", text.toString());
+        assertTrue(text.set(Long.MIN_VALUE));
+        assertEquals("TIME: " + Long.MIN_VALUE + "s", text.toString());
+    }
+}
@@ -0,0 +1,189 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A canvas that draws nothing and records what it was asked to draw: the number
+ * of calls of each type and an estimate of the pixels they cover, after the
+ * current translate/scale and clipped to the surface.
+ *
+ * The estimate only uses what the call arguments reveal, since paints are inert
+ * in JVM tests: circles, rects and bitmaps are sized exactly, points count one
+ * pixel each, and paths and text are counted but not sized. Bitmaps and rects
+ * made in tests have no size either, so the drawn size of the next bitmap can be
+ * announced with {@link #nextBitmapSize}.
+ */
+class RecordingCanvas extends Canvas {
+
+    private final int width;
+    private final int height;
+    private final Map<String, Integer> calls = new TreeMap<>();
+    private double coveredPixels;
+    private int submittedPoints;
+
+    // Current transform (scale, then translate) and the ones saved under it
+    private float translateX, translateY;
+    private float scaleX = 1, scaleY = 1;
+    private final ArrayDeque<float[]> saved = new ArrayDeque<>();
+
+    private int nextBitmapWidth = -1;
+    private int nextBitmapHeight;
+
+    RecordingCanvas(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /** Draw calls by type, e.g. "bitmap" or "circle". */
+    Map<String, Integer> getCalls() {
+        return calls;
+    }
+
+    int getTotalCalls() {
+        int total = 0;
+        for (int n : calls.values()) {
+            total += n;
+        }
+        return total;
+    }
+
+    /** Points handed to drawPoints, whether or not they land on the surface. */
+    int getSubmittedPoints() {
+        return submittedPoints;
+    }
+
+    /** Covered pixels divided by surface pixels: 1.0 is every pixel drawn once. */
+    double getOverdraw() {
+        return coveredPixels / ((double) width * height);
+    }
+
+    void nextBitmapSize(int bitmapWidth, int bitmapHeight) {
+        nextBitmapWidth = bitmapWidth;
+        nextBitmapHeight = bitmapHeight;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int save() {
+        saved.push(new float[]{translateX, translateY, scaleX, scaleY});
+        return saved.size();
+    }
+
+    @Override
+    public void restore() {
+        float[] state = saved.pop();
+        translateX = state[0];
+        translateY = state[1];
+        scaleX = state[2];
+        scaleY = state[3];
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        translateX += dx * scaleX;
+        translateY += dy * scaleY;
+    }
+
+    @Override
+    public void scale(float sx, float sy) {
+        scaleX *= sx;
+        scaleY *= sy;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        record("bitmap");
+        int w = nextBitmapWidth >= 0 ? nextBitmapWidth : bitmap != null ? bitmap.getWidth() : 0;
+        int h = nextBitmapWidth >= 0 ? nextBitmapHeight : bitmap != null ? bitmap.getHeight() : 0;
+        nextBitmapWidth = -1;
+        cover(left, top, left + w, top + h, 1);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        record("bitmap");
+        int right = nextBitmapWidth >= 0 ? dst.left + nextBitmapWidth : dst.right;
+        int bottom = nextBitmapWidth >= 0 ? dst.top + nextBitmapHeight : dst.bottom;
+        nextBitmapWidth = -1;
+        cover(dst.left, dst.top, right, bottom, 1);
+    }
+
+    @Override
+    public void drawPoints(float[] pts, int offset, int count, Paint paint) {
+        record("points");
+        submittedPoints += count / 2;
+        for (int i = offset; i < offset + count - 1; i += 2) {
+            cover(pts[i], pts[i + 1], pts[i] + 1, pts[i + 1] + 1, 1);
+        }
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        record("circle");
+        cover(cx - radius, cy - radius, cx + radius, cy + radius, Math.PI / 4);
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        record("rect");
+        cover(left, top, right, bottom, 1);
+    }
+
+    @Override
+    public void drawColor(int color) {
+        record("color");
+        coveredPixels += (double) width * height;
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        record("path");
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+        record("text");
+    }
+
+    @Override
+    public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) {
+        record("text");
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        record("text");
+    }
+
+    private void record(String type) {
+        Integer n = calls.get(type);
+        calls.put(type, n == null ? 1 : n + 1);
+    }
+
+    // Adds the on-surface part of a box, times the share of it the shape fills
+    private void cover(float left, float top, float right, float bottom, double fill) {
+        double l = Math.max(0, left * scaleX + translateX);
+        double t = Math.max(0, top * scaleY + translateY);
+        double r = Math.min(width, right * scaleX + translateX);
+        double b = Math.min(height, bottom * scaleY + translateY);
+        if (r > l && b > t) {
+            coveredPixels += (r - l) * (b - t) * fill;
+        }
+    }
+}
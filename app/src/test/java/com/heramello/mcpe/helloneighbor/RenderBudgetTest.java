@@ -0,0 +1,160 @@
+package com.heramello.mcpe.helloneighbor;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import com.heramello.mcpe.helloneighbor.core.FixedStepClock;
+import com.heramello.mcpe.helloneighbor.core.FrameStats;
+import com.heramello.mcpe.helloneighbor.core.GameWorld;
+import com.heramello.mcpe.helloneighbor.core.MeteorPool;
+import com.heramello.mcpe.helloneighbor.core.QualityGovernor;
+import com.heramello.mcpe.helloneighbor.core.WorldSnapshot;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Renders fixed game states into a {@link RecordingCanvas} and checks draw calls
+ * by type and estimated overdraw against the budgets in render_budgets.properties.
+ * A budget that no longer fits fails with the measured values, so a change to the
+ * draw path has to update the budget file in the same review.
+ *
+ * Bitmaps made in JVM tests have no size, so every bitmap draw is announced to
+ * the canvas with the size the renderer reports for it: meteor sprites, the
+ * full-view background and the HUD layer.
+ */
+public class RenderBudgetTest {
+
+    private static final String BUDGETS = "/render_budgets.properties";
+
+    private Properties budgets;
+    private RecordingCanvas canvas;
+    private MeteorSpriteCache previousCache;
+
+    @Before
+    public void setUp() throws IOException {
+        budgets = new Properties();
+        InputStream in = getClass().getResourceAsStream(BUDGETS);
+        assertNotNull("Missing " + BUDGETS, in);
+        try {
+            budgets.load(in);
+        } finally {
+            in.close();
+        }
+
+        // The real cache, but every sprite it hands out is announced to the canvas,
+        // since bitmaps made in JVM tests have no size of their own
+        previousCache = RenderCaches.takeSpriteCache();
+        RenderCaches.recycleSpriteCache(new MeteorSpriteCache(MeteorSpriteCache.DEFAULT_BUDGET_BYTES) {
+            @Override
+            public Bitmap get(int key) {
+                Bitmap sprite = super.get(key);
+                canvas.nextBitmapSize(getSpriteWidth(key), getSpriteHeight(key));
+                return sprite;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        RenderCaches.recycleSpriteCache(previousCache);
+    }
+
+    @Test
+    public void empty() {
+        GameWorld world = new GameWorld(42);
+        world.resize(1080, 2400);
+        assertWithinBudget("empty", world);
+    }
+
+    @Test
+    public void midGame() {
+        assertWithinBudget("midGame", playedWorld(1080, 2400));
+    }
+
+    @Test
+    public void twoHundredMeteors() {
+        GameWorld world = new GameWorld(42);
+        world.resize(1080, 2400);
+        Random random = new Random(7);
+        MeteorPool meteors = world.getMeteors();
+        for (int i = 0; i < 200; i++) {
+            meteors.spawn(random.nextInt(1080 - 100), random.nextInt(2400), 40 + random.nextInt(60), 0f);
+        }
+        assertWithinBudget("twoHundredMeteors", world);
+    }
+
+    @Test
+    public void uhdMidGame() {
+        assertWithinBudget("uhdMidGame", playedWorld(2160, 3840));
+    }
+
+    // A minute of play with the ship sweeping back and forth
+    private static GameWorld playedWorld(int width, int height) {
+        GameWorld world = new GameWorld(42);
+        world.resize(width, height);
+        for (int tick = 0; tick < 60 * FixedStepClock.TICKS_PER_SECOND; tick++) {
+            world.moveShip(100 + tick * 6 % (width - 200));
+            world.tick();
+        }
+        return world;
+    }
+
+    private void assertWithinBudget(String state, GameWorld world) {
+        int width = world.getWidth();
+        int height = world.getHeight();
+        canvas = new RecordingCanvas(width, height);
+        CanvasRenderer renderer = new SoftwareCanvasRenderer(world.getStarfield(), new FrameStats(),
+                new QualityGovernor(FixedStepClock.TICK_NANOS)) {
+            @Override
+            void drawScene(Canvas target, WorldSnapshot snapshot, float alpha) {
+                // The background is the scene's first bitmap
+                canvas.nextBitmapSize(getBackgroundWidth(), getBackgroundHeight());
+                super.drawScene(target, snapshot, alpha);
+            }
+
+            @Override
+            void drawHUD(Canvas target, WorldSnapshot snapshot) {
+                canvas.nextBitmapSize(getHudWidth(), getHudHeight());
+                super.drawHUD(target, snapshot);
+            }
+        };
+        renderer.onSizeChanged(width, height);
+        WorldSnapshot snapshot = new WorldSnapshot();
+        snapshot.capture(world);
+
+        renderer.draw(canvas, snapshot, 0.5f);
+        renderer.release();
+
+        StringBuilder failures = new StringBuilder();
+        check(failures, state + ".calls.total", canvas.getTotalCalls());
+        for (Map.Entry<String, Integer> calls : canvas.getCalls().entrySet()) {
+            check(failures, state + ".calls." + calls.getKey(), calls.getValue());
+        }
+        check(failures, state + ".points.submitted", canvas.getSubmittedPoints());
+        check(failures, state + ".overdraw", canvas.getOverdraw());
+        assertTrue(state + " is over budget:\n" + failures + "measured " + canvas.getCalls()
+                        + String.format(Locale.US, ", overdraw %.3f", canvas.getOverdraw()),
+                failures.length() == 0);
+    }
+
+    private void check(StringBuilder failures, String key, double actual) {
+        String budget = budgets.getProperty(key);
+        String shown = actual == Math.rint(actual)
+                ? String.valueOf((long) actual) : String.format(Locale.US, "%.3f", actual);
+        if (budget == null) {
+            failures.append("  ").append(key).append(" = ").append(shown).append(" has no budget\n");
+        } else if (actual > Double.parseDouble(budget)) {
+            failures.append("  ").append(key).append(" = ").append(shown)
+                    .append(", budget ").append(budget).append('\n');
+        }
+    }
+}
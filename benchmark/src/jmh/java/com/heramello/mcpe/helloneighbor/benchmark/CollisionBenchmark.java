@@ -0,0 +1,39 @@
+package com.heramello.mcpe.helloneighbor.benchmark;
+
+import com.heramello.mcpe.helloneighbor.core.GameWorld;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Worst case for the proximity pass: every meteor sits in the ship's row, so the
+ * y-band rejection never fires. The world keeps ticking after the first hit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int meteors;
+
+    private GameWorld world;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        world = Worlds.inShipBand(meteors);
+    }
+
+    @Benchmark
+    public GameWorld tickInShipBand() {
+        world.tick();
+        return world;
+    }
+}
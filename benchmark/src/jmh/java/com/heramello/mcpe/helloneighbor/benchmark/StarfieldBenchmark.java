@@ -0,0 +1,79 @@
+package com.heramello.mcpe.helloneighbor.benchmark;
+
+import com.heramello.mcpe.helloneighbor.core.GameWorld;
+import com.heramello.mcpe.helloneighbor.core.Rng;
+import com.heramello.mcpe.helloneighbor.core.Starfield;
+import com.heramello.mcpe.helloneighbor.core.WorldSnapshot;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-tick simulation cost of the layered starfield, update plus the snapshot
+ * copy, against the 50 Star objects it replaced. The layered one must not be
+ * slower; its draw cost is pinned by the app's render budgets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StarfieldBenchmark {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 2400;
+
+    // The original star: an object per star, moved 2 px per tick
+    static final class Star {
+        float x, y;
+    }
+
+    private GameWorld world;
+    private Starfield starfield;
+    private WorldSnapshot snapshot;
+    private List<Star> stars;
+    private Rng random;
+
+    @Setup
+    public void setUp() {
+        world = new GameWorld(42);
+        world.resize(WIDTH, HEIGHT);
+        starfield = world.getStarfield();
+        snapshot = new WorldSnapshot();
+
+        random = new Rng(7);
+        stars = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Star star = new Star();
+            star.x = random.nextFloat() * WIDTH;
+            star.y = random.nextFloat() * HEIGHT;
+            stars.add(star);
+        }
+    }
+
+    @Benchmark
+    public WorldSnapshot layered() {
+        starfield.update();
+        // Includes the rest of the snapshot, which is the same for both
+        snapshot.capture(world);
+        return snapshot;
+    }
+
+    @Benchmark
+    public WorldSnapshot legacyFiftyStars() {
+        for (Star star : stars) {
+            star.y += 2;
+            if (star.y > HEIGHT) {
+                star.y = 0;
+                star.x = random.nextFloat() * WIDTH;
+            }
+        }
+        snapshot.capture(world);
+        return snapshot;
+    }
+}
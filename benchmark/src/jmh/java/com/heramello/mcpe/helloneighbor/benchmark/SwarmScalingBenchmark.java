@@ -0,0 +1,57 @@
+package com.heramello.mcpe.helloneighbor.benchmark;
+
+import com.heramello.mcpe.helloneighbor.core.GameWorld;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Swarm-mode ticks per second against the number of fork-join threads. Compare
+ * with {@link WorldTickBenchmark} at the same meteor count for the serial update.
+ * The swarm keeps spawning a few moving meteors per tick on top of the parked
+ * field, so the population drifts up slightly during an iteration.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SwarmScalingBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"2000", "20000", "100000"})
+    public int meteors;
+
+    private ForkJoinPool pool;
+    private GameWorld world;
+
+    @Setup(Level.Trial)
+    public void startPool() {
+        pool = new ForkJoinPool(threads);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        world = Worlds.scattered(meteors, pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopPool() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public GameWorld tick() {
+        world.tick();
+        return world;
+    }
+}
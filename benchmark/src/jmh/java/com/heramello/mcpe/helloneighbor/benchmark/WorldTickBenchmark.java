@@ -0,0 +1,44 @@
+package com.heramello.mcpe.helloneighbor.benchmark;
+
+import com.heramello.mcpe.helloneighbor.core.GameWorld;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Cost of one {@link GameWorld#tick()} as the meteor count grows. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WorldTickBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int meteors;
+
+    private GameWorld world;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        world = Worlds.scattered(meteors);
+    }
+
+    @Benchmark
+    public GameWorld tick() {
+        world.tick();
+        return world;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public GameWorld ticksPerSecond() {
+        world.tick();
+        return world;
+    }
+}
@@ -0,0 +1,62 @@
+package com.heramello.mcpe.helloneighbor.benchmark;
+
+import com.heramello.mcpe.helloneighbor.core.GameWorld;
+import com.heramello.mcpe.helloneighbor.core.MeteorPool;
+import com.heramello.mcpe.helloneighbor.core.Spaceship;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/** Pre-populated worlds for the benchmarks. Seeded, so every run sees the same field. */
+final class Worlds {
+
+    static final int WIDTH = 1080;
+    static final int HEIGHT = 2400;
+
+    private Worlds() {
+    }
+
+    /**
+     * Meteors scattered above the ship's row. They are parked (speed 0) so the
+     * population stays at {@code count} for the whole measurement; every tick still
+     * moves, culls and proximity-tests all of them.
+     */
+    static GameWorld scattered(int count) {
+        return scattered(count, null);
+    }
+
+    /** Like {@link #scattered(int)}, in a swarm-mode world updated on {@code pool}. */
+    static GameWorld scattered(int count, ForkJoinPool pool) {
+        GameWorld world = newWorld(pool);
+        Random random = new Random(7);
+        MeteorPool meteors = world.getMeteors();
+        float maxY = world.getSpaceship().y - 400;
+        for (int i = 0; i < count; i++) {
+            meteors.spawn(random.nextInt(WIDTH - 100), random.nextFloat() * maxY,
+                    40 + random.nextInt(60), 0f);
+        }
+        return world;
+    }
+
+    /**
+     * Every meteor parked in the ship's row, so none of them is rejected by the
+     * y-band test and each one pays for the full distance check.
+     */
+    static GameWorld inShipBand(int count) {
+        GameWorld world = newWorld(null);
+        Random random = new Random(7);
+        MeteorPool meteors = world.getMeteors();
+        Spaceship ship = world.getSpaceship();
+        for (int i = 0; i < count; i++) {
+            float size = 40 + random.nextInt(60);
+            float y = ship.y + ship.height / 2 - size / 2 + (random.nextFloat() - 0.5f) * 100;
+            meteors.spawn(random.nextInt(WIDTH - 100), y, size, 0f);
+        }
+        return world;
+    }
+
+    private static GameWorld newWorld(ForkJoinPool swarmPool) {
+        GameWorld world = new GameWorld(42, swarmPool);
+        world.resize(WIDTH, HEIGHT);
+        return world;
+    }
+}
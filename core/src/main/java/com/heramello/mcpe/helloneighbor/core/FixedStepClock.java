@@ -0,0 +1,80 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+/**
+ * Fixed-timestep accumulator for the game loop. The simulation always advances in
+ * whole ticks of {@link #getTickNanos()}; whatever is left over is exposed as an
+ * interpolation factor for rendering.
+ */
+public class FixedStepClock {
+
+    /** Default tick rate, and the rate the game's physics are tuned for. */
+    public static final int TICKS_PER_SECOND = 60;
+    public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+
+    // Spiral-of-death guard: never run more than this many ticks for one frame
+    private static final int MAX_TICKS_PER_FRAME = 5;
+
+    private final int ticksPerSecond;
+    private final long tickNanos;
+
+    private long lastFrameNanos;
+    private long accumulator;
+    private long droppedTicks;
+    private boolean started;
+
+    public FixedStepClock() {
+        this(TICKS_PER_SECOND);
+    }
+
+    public FixedStepClock(int ticksPerSecond) {
+        this.ticksPerSecond = ticksPerSecond;
+        tickNanos = 1_000_000_000L / ticksPerSecond;
+    }
+
+    public void reset(long nowNanos) {
+        lastFrameNanos = nowNanos;
+        accumulator = 0;
+        started = true;
+    }
+
+    /** Returns how many simulation ticks have to run to catch up with {@code nowNanos}. */
+    public int advance(long nowNanos) {
+        if (!started) reset(nowNanos);
+
+        accumulator += nowNanos - lastFrameNanos;
+        lastFrameNanos = nowNanos;
+
+        long ticks = accumulator / tickNanos;
+        if (ticks > MAX_TICKS_PER_FRAME) {
+            // Too far behind to catch up - drop the backlog instead of spiralling
+            droppedTicks += ticks - MAX_TICKS_PER_FRAME;
+            accumulator %= tickNanos;
+            return MAX_TICKS_PER_FRAME;
+        }
+        accumulator -= ticks * tickNanos;
+        return (int) ticks;
+    }
+
+    /** Fraction of a tick elapsed since the last simulated state, in [0, 1). */
+    public float alpha() {
+        return (float) accumulator / tickNanos;
+    }
+
+    /** Nanoseconds until the next tick is due, measured from {@code nowNanos}. */
+    public long nanosUntilNextTick(long nowNanos) {
+        long elapsed = accumulator + (nowNanos - lastFrameNanos);
+        return Math.max(0, tickNanos - elapsed);
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+}
@@ -0,0 +1,112 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import java.util.Locale;
+
+/**
+ * Per-phase frame timings and a few live counters for the game loop. Timings go
+ * into fixed-memory {@link LatencyHistogram}s, so recording is cheap enough to
+ * leave on in release builds. Each phase has a single writer: UPDATE and SLEEP
+ * come from the simulation thread, everything else from the render thread.
+ */
+public class FrameStats {
+
+    public static final int UPDATE = 0;
+    public static final int DRAW = 1;
+    public static final int LOCK = 2;
+    public static final int POST = 3;
+    public static final int SLEEP = 4;
+    // Busy time of the whole frame: everything above except SLEEP
+    public static final int FRAME = 5;
+
+    private static final String[] PHASE_NAMES = {"update", "draw", "lock", "post", "sleep", "frame"};
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    private final LatencyHistogram[] phases = new LatencyHistogram[PHASE_NAMES.length];
+
+    private int meteorCount;
+    private float spawnsPerSecond;
+    private long gcCount;
+    private long windowStart = -1;
+    private long windowSpawnBase;
+
+    private volatile boolean overlayVisible;
+
+    public FrameStats() {
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+    }
+
+    public void record(int phase, long nanos) {
+        phases[phase].record(nanos);
+    }
+
+    public LatencyHistogram get(int phase) {
+        return phases[phase];
+    }
+
+    /**
+     * Updates the live counters once per frame. {@code totalSpawns} is the world's
+     * running spawn count; the rate is recomputed once per second.
+     */
+    public void sample(int meteors, long totalSpawns, long nowNanos) {
+        meteorCount = meteors;
+        if (windowStart < 0) {
+            windowStart = nowNanos;
+            windowSpawnBase = totalSpawns;
+        } else if (nowNanos - windowStart >= SECOND_NANOS) {
+            spawnsPerSecond = (totalSpawns - windowSpawnBase) * (float) SECOND_NANOS / (nowNanos - windowStart);
+            windowStart = nowNanos;
+            windowSpawnBase = totalSpawns;
+        }
+    }
+
+    public void setGcCount(long gcCount) {
+        this.gcCount = gcCount;
+    }
+
+    public int getMeteorCount() {
+        return meteorCount;
+    }
+
+    public float getSpawnsPerSecond() {
+        return spawnsPerSecond;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    /** Safe to call from any thread (e.g. the UI thread's debug gesture). */
+    public void toggleOverlay() {
+        overlayVisible = !overlayVisible;
+    }
+
+    public static String phaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+    public static int phaseCount() {
+        return PHASE_NAMES.length;
+    }
+
+    /** Multi-line p50/p95/p99/max summary in milliseconds, for logs and bug reports. */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < phases.length; i++) {
+            LatencyHistogram h = phases[i];
+            sb.append(String.format(Locale.US, "%-6s n=%d p50=%.2f p95=%.2f p99=%.2f max=%.2f ms%n",
+                    PHASE_NAMES[i], h.count(),
+                    h.percentile(50) / 1e6, h.percentile(95) / 1e6,
+                    h.percentile(99) / 1e6, h.max() / 1e6));
+        }
+        sb.append("meteors=").append(meteorCount)
+                .append(" spawns/s=").append(spawnsPerSecond)
+                .append(" gc=").append(gcCount);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,158 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated ring of gameplay events, written by the game thread and read by
+ * any number of consumers. Every consumer has its own read sequence, so each one
+ * sees every event exactly once at its own pace (haptics can be slow without
+ * holding up the UI).
+ *
+ * Publishing never blocks or allocates: if the slowest consumer is a whole ring
+ * behind, the event is dropped and counted. A few slots are held back for
+ * {@link #COLLISION} and {@link #GAME_OVER}, which happen at most once per run, so
+ * a backlog of other events can never cost the end of a run. Consumers block in {@link
+ * Consumer#await} without spinning; the producer only unparks a consumer that is
+ * actually waiting.
+ */
+public class GameEventRing {
+
+    public static final int NEAR_MISS = 0;
+    public static final int COLLISION = 1;
+    public static final int MILESTONE = 2;
+    public static final int GAME_OVER = 3;
+
+    // Slots only control events (COLLISION, GAME_OVER) may fill
+    private static final int CONTROL_SLOTS = 4;
+
+    /** Receives events on the consumer's thread. */
+    public interface Handler {
+        void onEvent(int type, long tick, long value);
+    }
+
+    private final int[] types;
+    private final long[] ticks;
+    private final long[] values;
+    private final int mask;
+    // Slots other events may fill before they are dropped
+    private final int regularSlots;
+
+    // Sequence of the next event to publish; only the producer writes it
+    private final AtomicLong head = new AtomicLong();
+    private volatile Consumer[] consumers = new Consumer[0];
+    private long dropped;
+
+    /** @param capacity events other than control events the ring holds at least */
+    public GameEventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity) + CONTROL_SLOTS - 1) << 1;
+        types = new int[size];
+        ticks = new long[size];
+        values = new long[size];
+        mask = size - 1;
+        regularSlots = size - CONTROL_SLOTS;
+    }
+
+    /** Registers a consumer that sees every event published from now on. */
+    public synchronized Consumer addConsumer() {
+        Consumer consumer = new Consumer(head.get());
+        Consumer[] grown = new Consumer[consumers.length + 1];
+        System.arraycopy(consumers, 0, grown, 0, consumers.length);
+        grown[consumers.length] = consumer;
+        consumers = grown;
+        return consumer;
+    }
+
+    /** Publishes an event. Producer thread only; returns false if it was dropped. */
+    public boolean publish(int type, long tick, long value) {
+        long h = head.get();
+        Consumer[] readers = consumers;
+        int slots = type == COLLISION || type == GAME_OVER ? mask + 1 : regularSlots;
+        for (Consumer reader : readers) {
+            if (h - reader.sequence.get() >= slots) {
+                dropped++;
+                return false;
+            }
+        }
+        int slot = (int) (h & mask);
+        types[slot] = type;
+        ticks[slot] = tick;
+        values[slot] = value;
+        // A full volatile write: pairs with the waiter check in await(), so a
+        // consumer going to sleep either sees this event or gets unparked
+        head.set(h + 1);
+        for (Consumer reader : readers) {
+            Thread waiter = reader.waiter;
+            if (waiter != null) LockSupport.unpark(waiter);
+        }
+        return true;
+    }
+
+    /**
+     * Events dropped because a consumer fell a full ring behind. Producer thread, or
+     * a consumer reading it after an event published later than the drops.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    public static String typeName(int type) {
+        switch (type) {
+            case NEAR_MISS: return "near-miss";
+            case COLLISION: return "collision";
+            case MILESTONE: return "milestone";
+            case GAME_OVER: return "game-over";
+            default: return "unknown";
+        }
+    }
+
+    /** One reader's position in the ring. Each instance belongs to a single thread. */
+    public final class Consumer {
+
+        private final AtomicLong sequence;
+        private volatile Thread waiter;
+
+        private Consumer(long start) {
+            sequence = new AtomicLong(start);
+        }
+
+        /** Hands every pending event to {@code handler}; returns how many there were. */
+        public int drain(Handler handler) {
+            long next = sequence.get();
+            long available = head.get();
+            for (long s = next; s < available; s++) {
+                int slot = (int) (s & mask);
+                handler.onEvent(types[slot], ticks[slot], values[slot]);
+            }
+            // Frees the slots for the producer only after they have been handled
+            sequence.lazySet(available);
+            return (int) (available - next);
+        }
+
+        /**
+         * Blocks until an event is pending, {@link #wake} is called, the thread is
+         * interrupted or {@code timeoutNanos} pass (0 waits indefinitely).
+         */
+        public void await(long timeoutNanos) {
+            waiter = Thread.currentThread();
+            if (sequence.get() == head.get()) {
+                if (timeoutNanos > 0) {
+                    LockSupport.parkNanos(this, timeoutNanos);
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            waiter = null;
+        }
+
+        /** Wakes the consumer's thread out of {@link #await}, e.g. to shut it down. */
+        public void wake() {
+            Thread thread = waiter;
+            if (thread != null) LockSupport.unpark(thread);
+        }
+
+        public boolean hasPending() {
+            return sequence.get() != head.get();
+        }
+    }
+}
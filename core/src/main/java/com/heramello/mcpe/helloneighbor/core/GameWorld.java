@@ -0,0 +1,425 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The whole game simulation: ship, meteors, background stars, difficulty ramp
+ * and screen shake. Advances one fixed tick per {@link #tick()} and has no
+ * Android dependencies, so it can be driven by the game thread, tests and
+ * benchmarks alike.
+ *
+ * The simulation is deterministic: the same seed, tick rate, playfield size and
+ * sequence of {@link #moveShip} calls per tick always produce the same run. It never
+ * reads a clock; time only advances through ticks.
+ *
+ * Speeds are tuned in steps of {@link FixedStepClock#TICKS_PER_SECOND}. A world
+ * with a lower tick rate covers several steps per tick, and collisions are tested
+ * along the whole path a meteor covers in a tick, so nothing is skipped. The whole state, generator
+ * included, can be captured with {@link #saveState()} and resumed later.
+ *
+ * In swarm mode the field is far denser and the meteor pass is split over a
+ * fork-join pool by {@link SwarmUpdater}; it stays deterministic for any pool size.
+ */
+public class GameWorld {
+
+    /** Receives gameplay events from {@link #tick()}, on the ticking thread. */
+    public interface Listener {
+        void onNearMiss(int nearMisses);
+
+        void onCollision(long survivalTime, int nearMisses);
+
+        /** Every {@link #MILESTONE_SECONDS} of survival. */
+        void onMilestone(long survivalTime);
+    }
+
+    public static final int MILESTONE_SECONDS = 10;
+
+    // Hit and near-miss radii, as multiples of the summed ship and meteor radii
+    private static final float COLLISION_FACTOR = 0.7f;
+    private static final float NEAR_MISS_FACTOR = 1.5f;
+
+    // Ticks of screen shake after a near miss, at the full tick rate
+    private static final int SHAKE_STEPS = 10;
+
+    // Swarm mode: several small meteors every step, more as time goes on
+    private static final int SWARM_BASE_SPAWNS = 2;
+    private static final int SWARM_SECONDS_PER_EXTRA_SPAWN = 5;
+
+    private static final int STATE_VERSION = 4;
+
+    private final long seed;
+    private final int ticksPerSecond;
+    // Physics steps of the full tick rate covered by one tick
+    private final int stepsPerTick;
+    private final Rng random;
+    private final MeteorPool meteors;
+    private final Starfield starfield;
+    // Null outside swarm mode
+    private final SwarmUpdater swarm;
+    private Spaceship spaceship;
+    // Ship center last requested through moveShip, in whole pixels
+    private int shipTargetX;
+    private Listener listener;
+
+    private long ticks;
+    private long totalSpawns;
+    private long survivalTime;
+    private int nearMisses;
+    private float meteorSpeed = 7f;
+    private int width, height;
+    private boolean gameOver;
+
+    private float shakeOffsetX = 0;
+    private float shakeOffsetY = 0;
+    private int shakeFrames = 0;
+
+    public GameWorld(long seed) {
+        this(seed, null);
+    }
+
+    /** A swarm-mode world whose meteor pass runs on {@code swarmPool}; null for classic mode. */
+    public GameWorld(long seed, ForkJoinPool swarmPool) {
+        this(seed, swarmPool, FixedStepClock.TICKS_PER_SECOND);
+    }
+
+    /**
+     * A world ticked {@code ticksPerSecond} times per second, which must divide
+     * {@link FixedStepClock#TICKS_PER_SECOND}; e.g. 30 to save battery.
+     */
+    public GameWorld(long seed, ForkJoinPool swarmPool, int ticksPerSecond) {
+        if (ticksPerSecond <= 0 || FixedStepClock.TICKS_PER_SECOND % ticksPerSecond != 0) {
+            throw new IllegalArgumentException("Unsupported tick rate: " + ticksPerSecond);
+        }
+        this.seed = seed;
+        this.ticksPerSecond = ticksPerSecond;
+        stepsPerTick = FixedStepClock.TICKS_PER_SECOND / ticksPerSecond;
+        swarm = swarmPool != null ? new SwarmUpdater(swarmPool) : null;
+        random = new Rng(seed);
+        meteors = new MeteorPool();
+        // Stars get their own generator so the background never shifts the
+        // sequence that drives meteor spawns
+        starfield = new Starfield(new Rng(random.nextLong()), stepsPerTick);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Sets the playfield size; places the ship and scatters the background stars. */
+    public void resize(int w, int h) {
+        width = w;
+        height = h;
+        spaceship = new Spaceship(w / 2 - 40, h - 200, 80, 100);
+        shipTargetX = w / 2;
+
+        starfield.resize(w, h);
+    }
+
+    /**
+     * Centers the ship on {@code x}, clamped to the playfield. Positions are whole
+     * pixels so a run can be replayed from a compact integer input stream.
+     */
+    public void moveShip(int x) {
+        if (spaceship == null) return;
+
+        shipTargetX = x;
+        spaceship.x = x - spaceship.width / 2;
+        if (spaceship.x < 0) spaceship.x = 0;
+        if (spaceship.x > width - spaceship.width) {
+            spaceship.x = width - spaceship.width;
+        }
+    }
+
+    public void tick() {
+        if (spaceship == null) return;
+
+        ticks++;
+        survivalTime = ticks / ticksPerSecond;
+        if (ticks % (MILESTONE_SECONDS * ticksPerSecond) == 0 && listener != null) {
+            listener.onMilestone(survivalTime);
+        }
+
+        // Increase difficulty
+        meteorSpeed = 7f + (survivalTime * 0.15f);
+
+        float shipRadius = spaceship.width / 2;
+        float shipCenterX = spaceship.x + shipRadius;
+        float shipCenterY = spaceship.y + spaceship.height / 2;
+        if (swarm != null) {
+            int spawns = (SWARM_BASE_SPAWNS + (int) (survivalTime / SWARM_SECONDS_PER_EXTRA_SPAWN)) * stepsPerTick;
+            for (int i = 0; i < spawns; i++) {
+                spawnMeteor(12 + random.nextInt(20));
+            }
+            updateSwarm(shipCenterX, shipCenterY, shipRadius);
+        } else {
+            // Spawn meteors more frequently; one roll per step keeps the rate
+            // independent of the tick rate
+            for (int step = 0; step < stepsPerTick; step++) {
+                if (random.nextInt(100) < 4 + (survivalTime / 10)) {
+                    spawnMeteor(40 + random.nextInt(60));
+                }
+            }
+            updateMeteors(shipCenterX, shipCenterY, shipRadius);
+        }
+
+        // Update background stars
+        starfield.update();
+
+        // Update shake effect
+        if (shakeFrames > 0) {
+            shakeFrames--;
+            shakeOffsetX = (random.nextFloat() - 0.5f) * 20;
+            shakeOffsetY = (random.nextFloat() - 0.5f) * 20;
+        } else {
+            shakeOffsetX = 0;
+            shakeOffsetY = 0;
+        }
+    }
+
+    private void spawnMeteor(int size) {
+        int x = random.nextInt(width - 100);
+        meteors.spawn(x, -100, size, meteorSpeed + random.nextFloat() * 3);
+        totalSpawns++;
+    }
+
+    // Update meteors and classify them against the ship in the same pass
+    // (backwards, so swap-removal never skips one)
+    private void updateMeteors(float shipCenterX, float shipCenterY, float shipRadius) {
+        float[] my = meteors.y;
+        float[] mprevY = meteors.prevY;
+        float[] mspeed = meteors.speed;
+        byte[] proximity = meteors.proximity;
+        for (int i = meteors.size() - 1; i >= 0; i--) {
+            mprevY[i] = my[i];
+            my[i] += mspeed[i] * stepsPerTick;
+
+            // Tested before culling: the sweep may cross the ship on its way out
+            byte p = classifyProximity(meteors.x[i], mprevY[i], my[i], meteors.size[i],
+                    shipCenterX, shipCenterY, shipRadius);
+            proximity[i] = p;
+            if (p == MeteorPool.PROXIMITY_HIT) {
+                // Direct hit - game over (reported once, even if several meteors hit)
+                if (!gameOver) {
+                    gameOver = true;
+                    if (listener != null) listener.onCollision(survivalTime, nearMisses);
+                }
+            } else if (p == MeteorPool.PROXIMITY_NEAR) {
+                // Near miss - shake screen
+                if (!meteors.isCountedAsNearMiss(i)) {
+                    nearMisses++;
+                    meteors.setCountedAsNearMiss(i, true);
+                    shakeFrames = SHAKE_STEPS / stepsPerTick;
+                    if (listener != null) listener.onNearMiss(nearMisses);
+                }
+            }
+
+            if (my[i] > height) {
+                meteors.remove(i);
+            }
+        }
+    }
+
+    // Same rules as updateMeteors(), but events are merged over the whole field:
+    // one near-miss callback per tick with the new total, one collision at most
+    private void updateSwarm(float shipCenterX, float shipCenterY, float shipRadius) {
+        swarm.update(meteors, height, stepsPerTick, shipCenterX, shipCenterY, shipRadius);
+        if (swarm.isHit() && !gameOver) {
+            gameOver = true;
+            if (listener != null) listener.onCollision(survivalTime, nearMisses);
+        }
+        int newNearMisses = swarm.getNearMisses();
+        if (newNearMisses > 0) {
+            nearMisses += newNearMisses;
+            shakeFrames = SHAKE_STEPS / stepsPerTick;
+            if (listener != null) listener.onNearMiss(nearMisses);
+        }
+    }
+
+    // Swept test of a meteor against the ship's collision circle. The meteor fell
+    // straight down from prevY to y this tick, so its closest approach to the ship
+    // is where that segment passes the ship's center height; testing there means
+    // no speed or tick rate lets a meteor step over the ship between two ticks.
+    // Meteors whose vertical distance alone exceeds the near-miss reach are rejected
+    // before the horizontal distance is even looked at; the ship never leaves its
+    // row, so that rejects almost the whole field.
+    static byte classifyProximity(float x, float prevY, float y, float size,
+                                  float shipCenterX, float shipCenterY, float shipRadius) {
+        float radius = size / 2;
+        float reach = (shipRadius + radius) * NEAR_MISS_FACTOR;
+        float closestY = Math.max(prevY + radius, Math.min(y + radius, shipCenterY));
+        float dy = shipCenterY - closestY;
+        if (dy >= reach || dy <= -reach) {
+            return MeteorPool.PROXIMITY_CLEAR;
+        }
+
+        float dx = shipCenterX - (x + radius);
+        float distanceSq = dx * dx + dy * dy;
+        float hitRange = (shipRadius + radius) * COLLISION_FACTOR;
+        float hitRangeSq = hitRange * hitRange;
+        if (distanceSq < hitRangeSq) {
+            return MeteorPool.PROXIMITY_HIT;
+        }
+        if (distanceSq < reach * reach && distanceSq > hitRangeSq) {
+            return MeteorPool.PROXIMITY_NEAR;
+        }
+        return MeteorPool.PROXIMITY_CLEAR;
+    }
+
+    /** Snapshot of everything {@link #tick()} depends on, for {@link #restoreState}. */
+    public byte[] saveState() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(STATE_VERSION);
+            out.writeLong(seed);
+            out.writeBoolean(swarm != null);
+            out.writeInt(ticksPerSecond);
+            out.writeLong(random.getState());
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeBoolean(spaceship != null);
+            if (spaceship != null) {
+                out.writeFloat(spaceship.x);
+                out.writeFloat(spaceship.y);
+                out.writeFloat(spaceship.width);
+                out.writeFloat(spaceship.height);
+            }
+            out.writeInt(shipTargetX);
+            out.writeLong(ticks);
+            out.writeLong(totalSpawns);
+            out.writeLong(survivalTime);
+            out.writeInt(nearMisses);
+            out.writeFloat(meteorSpeed);
+            out.writeBoolean(gameOver);
+            out.writeFloat(shakeOffsetX);
+            out.writeFloat(shakeOffsetY);
+            out.writeInt(shakeFrames);
+            meteors.writeState(out);
+            starfield.writeState(out);
+            out.flush();
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Creates a world from a {@link #saveState()} snapshot, seed included. */
+    public static GameWorld fromState(byte[] state) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(state));
+        in.readInt();
+        long seed = in.readLong();
+        // Swarm worlds resume on the common pool
+        ForkJoinPool swarmPool = in.readBoolean() ? ForkJoinPool.commonPool() : null;
+        GameWorld world = new GameWorld(seed, swarmPool, in.readInt());
+        world.restoreState(state);
+        return world;
+    }
+
+    /**
+     * Resumes from a {@link #saveState()} snapshot of a world with the same seed;
+     * afterwards it ticks exactly as the saved world would have.
+     */
+    public void restoreState(byte[] state) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(state));
+        if (in.readInt() != STATE_VERSION) {
+            throw new IOException("Unsupported world state");
+        }
+        if (in.readLong() != seed || in.readBoolean() != (swarm != null) || in.readInt() != ticksPerSecond) {
+            throw new IOException("World state is for a different world");
+        }
+        random.setState(in.readLong());
+        width = in.readInt();
+        height = in.readInt();
+        spaceship = in.readBoolean()
+                ? new Spaceship(in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat())
+                : null;
+        shipTargetX = in.readInt();
+        ticks = in.readLong();
+        totalSpawns = in.readLong();
+        survivalTime = in.readLong();
+        nearMisses = in.readInt();
+        meteorSpeed = in.readFloat();
+        gameOver = in.readBoolean();
+        shakeOffsetX = in.readFloat();
+        shakeOffsetY = in.readFloat();
+        shakeFrames = in.readInt();
+        meteors.readState(in);
+        starfield.readState(in);
+    }
+
+    public MeteorPool getMeteors() {
+        return meteors;
+    }
+
+    public Starfield getStarfield() {
+        return starfield;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public boolean isSwarm() {
+        return swarm != null;
+    }
+
+    /** True once the playfield size is known and {@link #tick()} does work. */
+    public boolean isReady() {
+        return spaceship != null;
+    }
+
+    public int getShipTargetX() {
+        return shipTargetX;
+    }
+
+    public Spaceship getSpaceship() {
+        return spaceship;
+    }
+
+    public float getShakeOffsetX() {
+        return shakeOffsetX;
+    }
+
+    public float getShakeOffsetY() {
+        return shakeOffsetY;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /** Meteors spawned by the world since it was created. */
+    public long getTotalSpawns() {
+        return totalSpawns;
+    }
+
+    public long getSurvivalTime() {
+        return survivalTime;
+    }
+
+    public int getNearMisses() {
+        return nearMisses;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
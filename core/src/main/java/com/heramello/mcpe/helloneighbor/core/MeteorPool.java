@@ -0,0 +1,195 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Meteors stored as parallel primitive arrays. Live meteors always occupy
+ * indices [0, count); slots [count, capacity) form the free list, so spawning
+ * takes the first free slot and removing swaps the last live meteor into the
+ * hole. Nothing is allocated unless the pool has to grow.
+ */
+public class MeteorPool {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    // Result of the last proximity pass against the ship, one per meteor
+    public static final byte PROXIMITY_CLEAR = 0;
+    public static final byte PROXIMITY_NEAR = 1;
+    public static final byte PROXIMITY_HIT = 2;
+
+    public float[] x;
+    public float[] y;
+    public float[] prevY;
+    public float[] size;
+    public float[] speed;
+    public byte[] proximity;
+    // Meteor has already been counted as a near miss. One byte per slot rather than
+    // a bitset, so parallel updates of neighbouring meteors never share a word.
+    private boolean[] countedNearMiss;
+
+    private int count;
+
+    public MeteorPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MeteorPool(int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+
+    public int spawn(float mx, float my, float msize, float mspeed) {
+        if (count == x.length) {
+            grow();
+        }
+        int i = count++;
+        x[i] = mx;
+        y[i] = my;
+        prevY[i] = my;
+        size[i] = msize;
+        speed[i] = mspeed;
+        proximity[i] = PROXIMITY_CLEAR;
+        setCountedAsNearMiss(i, false);
+        return i;
+    }
+
+    /**
+     * Removes the meteor at {@code i} by moving the last live meteor into its slot.
+     * Callers iterating forward must revisit {@code i}; iterating backwards is safe.
+     */
+    public void remove(int i) {
+        int last = --count;
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            prevY[i] = prevY[last];
+            size[i] = size[last];
+            speed[i] = speed[last];
+            proximity[i] = proximity[last];
+            setCountedAsNearMiss(i, isCountedAsNearMiss(last));
+        }
+        setCountedAsNearMiss(last, false);
+    }
+
+    public void clear() {
+        for (int i = 0; i < count; i++) {
+            countedNearMiss[i] = false;
+        }
+        count = 0;
+    }
+
+    void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            out.writeFloat(x[i]);
+            out.writeFloat(y[i]);
+            out.writeFloat(prevY[i]);
+            out.writeFloat(size[i]);
+            out.writeFloat(speed[i]);
+            out.writeByte(proximity[i]);
+            out.writeBoolean(isCountedAsNearMiss(i));
+        }
+    }
+
+    void readState(DataInputStream in) throws IOException {
+        clear();
+        int stored = in.readInt();
+        for (int n = 0; n < stored; n++) {
+            int i = spawn(in.readFloat(), in.readFloat(), 0, 0);
+            prevY[i] = in.readFloat();
+            size[i] = in.readFloat();
+            speed[i] = in.readFloat();
+            proximity[i] = in.readByte();
+            setCountedAsNearMiss(i, in.readBoolean());
+        }
+    }
+
+    public boolean isCountedAsNearMiss(int i) {
+        return countedNearMiss[i];
+    }
+
+    public void setCountedAsNearMiss(int i, boolean counted) {
+        countedNearMiss[i] = counted;
+    }
+
+    /** Grows the arrays, if needed, so {@code capacity} meteors fit without reallocating. */
+    void ensureCapacity(int capacity) {
+        if (capacity <= x.length) return;
+
+        int newCapacity = x.length;
+        while (newCapacity < capacity) newCapacity *= 2;
+        resize(newCapacity);
+    }
+
+    /** Makes this pool an exact copy of {@code other}, growing only if it has to. */
+    void copyFrom(MeteorPool other) {
+        int n = other.count;
+        ensureCapacity(n);
+        System.arraycopy(other.x, 0, x, 0, n);
+        System.arraycopy(other.y, 0, y, 0, n);
+        System.arraycopy(other.prevY, 0, prevY, 0, n);
+        System.arraycopy(other.size, 0, size, 0, n);
+        System.arraycopy(other.speed, 0, speed, 0, n);
+        System.arraycopy(other.proximity, 0, proximity, 0, n);
+        System.arraycopy(other.countedNearMiss, 0, countedNearMiss, 0, n);
+        count = n;
+    }
+
+    /** Sets the live count after meteors were written straight into the arrays. */
+    void setSize(int size) {
+        count = size;
+    }
+
+    /**
+     * Exchanges contents with {@code other} by swapping array references, so a
+     * pool filled as a back buffer becomes the live one in O(1).
+     */
+    void swap(MeteorPool other) {
+        float[] f;
+        f = x; x = other.x; other.x = f;
+        f = y; y = other.y; other.y = f;
+        f = prevY; prevY = other.prevY; other.prevY = f;
+        f = size; size = other.size; other.size = f;
+        f = speed; speed = other.speed; other.speed = f;
+        byte[] b = proximity; proximity = other.proximity; other.proximity = b;
+        boolean[] c = countedNearMiss; countedNearMiss = other.countedNearMiss; other.countedNearMiss = c;
+        int n = count; count = other.count; other.count = n;
+    }
+
+    private void allocate(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        prevY = new float[capacity];
+        size = new float[capacity];
+        speed = new float[capacity];
+        proximity = new byte[capacity];
+        countedNearMiss = new boolean[capacity];
+    }
+
+    private void grow() {
+        resize(x.length * 2);
+    }
+
+    private void resize(int capacity) {
+        float[] ox = x, oy = y, oprevY = prevY, osize = size, ospeed = speed;
+        byte[] oproximity = proximity;
+        boolean[] ocounted = countedNearMiss;
+        allocate(capacity);
+        System.arraycopy(ox, 0, x, 0, count);
+        System.arraycopy(oy, 0, y, 0, count);
+        System.arraycopy(oprevY, 0, prevY, 0, count);
+        System.arraycopy(osize, 0, size, 0, count);
+        System.arraycopy(ospeed, 0, speed, 0, count);
+        System.arraycopy(oproximity, 0, proximity, 0, count);
+        System.arraycopy(ocounted, 0, countedNearMiss, 0, count);
+    }
+}
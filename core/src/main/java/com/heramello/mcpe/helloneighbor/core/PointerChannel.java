@@ -0,0 +1,79 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer ring of timestamped pointer samples.
+ * The UI thread {@link #offer offers} touch positions, the game thread
+ * {@link #drainTo drains} them once per tick. Neither side ever blocks.
+ */
+public class PointerChannel {
+
+    private final float[] xs;
+    private final long[] times;
+    private final int mask;
+
+    // head is only written by the producer, tail only by the consumer
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    // Newest sample seen by the last drainTo(); consumer-side only
+    private float latestX;
+    private long latestTime;
+
+    /** @param capacity rounded up to a power of two */
+    public PointerChannel(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        xs = new float[size];
+        times = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Publishes a sample. Returns false, dropping the sample, if the consumer has
+     * fallen a full ring behind (e.g. while the game thread is paused).
+     */
+    public boolean offer(float x, long timeMillis) {
+        long h = head.get();
+        if (h - tail.get() > mask) {
+            return false;
+        }
+        int slot = (int) (h & mask);
+        xs[slot] = x;
+        times[slot] = timeMillis;
+        head.lazySet(h + 1);
+        return true;
+    }
+
+    /**
+     * Consumes every pending sample, remembers the newest one and hands each to
+     * {@code predictor} (if not null), oldest first. Returns false if nothing was
+     * pending.
+     */
+    public boolean drainTo(TouchPredictor predictor) {
+        long t = tail.get();
+        long h = head.get();
+        if (t == h) {
+            return false;
+        }
+        if (predictor != null) {
+            for (long i = t; i < h; i++) {
+                int slot = (int) (i & mask);
+                predictor.add(xs[slot], times[slot]);
+            }
+        }
+        int slot = (int) ((h - 1) & mask);
+        latestX = xs[slot];
+        latestTime = times[slot];
+        tail.lazySet(h);
+        return true;
+    }
+
+    public float getLatestX() {
+        return latestX;
+    }
+
+    public long getLatestTime() {
+        return latestTime;
+    }
+}
@@ -0,0 +1,117 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+/**
+ * Picks a rendering quality level from measured frame times. Fed the busy time of
+ * every frame; when the rolling average goes over budget it drops one level, and
+ * when there has been clear headroom for a while it climbs back one level.
+ *
+ * Levels only change how the frame is drawn, never what the simulation does.
+ * The thresholds are far apart and stepping up is much slower than stepping
+ * down, so quality settles instead of flapping between two levels. After every
+ * change the window starts over, so the next decision sees the new level only.
+ */
+public class QualityGovernor {
+
+    public static final int FULL = 0;
+    public static final int NO_TRAILS = 1;
+    public static final int NO_GLOW = 2;
+    public static final int FEWER_STARS = 3;
+    public static final int LOW_RESOLUTION = 4;
+
+    private static final String[] LEVEL_NAMES = {"full", "no-trails", "no-glow", "fewer-stars", "low-res"};
+
+    // Frames averaged per decision: half a second at 60 fps
+    private static final int WINDOW = 30;
+    // Over budget by 10% steps down; under 70% of budget for UP_DELAY frames steps up
+    private static final float DOWN_THRESHOLD = 1.1f;
+    private static final float UP_THRESHOLD = 0.7f;
+    private static final int UP_DELAY = 4 * WINDOW;
+
+    private static final float REDUCED_STAR_FRACTION = 0.4f;
+    private static final float REDUCED_RESOLUTION_SCALE = 0.75f;
+
+    private final long budgetNanos;
+    private final long[] window = new long[WINDOW];
+    private int windowIndex;
+    private int windowFill;
+    private long windowSum;
+    private int headroomFrames;
+
+    private volatile int level = FULL;
+    private long levelChanges;
+
+    public QualityGovernor(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    /** Records one frame's busy time. Returns true if the level changed. */
+    public boolean record(long frameNanos) {
+        windowSum += frameNanos - window[windowIndex];
+        window[windowIndex] = frameNanos;
+        windowIndex = (windowIndex + 1) % WINDOW;
+        if (windowFill < WINDOW) {
+            windowFill++;
+            if (windowFill < WINDOW) return false;
+        }
+
+        long average = windowSum / WINDOW;
+        if (average > budgetNanos * DOWN_THRESHOLD) {
+            headroomFrames = 0;
+            if (level < LOW_RESOLUTION) {
+                setLevel(level + 1);
+                return true;
+            }
+        } else if (average < budgetNanos * UP_THRESHOLD) {
+            if (++headroomFrames >= UP_DELAY && level > FULL) {
+                setLevel(level - 1);
+                return true;
+            }
+        } else {
+            headroomFrames = 0;
+        }
+        return false;
+    }
+
+    /** Current level; safe to read from any thread. */
+    public int getLevel() {
+        return level;
+    }
+
+    public long getLevelChanges() {
+        return levelChanges;
+    }
+
+    public boolean drawsTrails() {
+        return level < NO_TRAILS;
+    }
+
+    public boolean drawsGlow() {
+        return level < NO_GLOW;
+    }
+
+    /** Fraction of each star layer to draw. */
+    public float starFraction() {
+        return level >= FEWER_STARS ? REDUCED_STAR_FRACTION : 1f;
+    }
+
+    /** Surface size as a fraction of the view size. */
+    public float resolutionScale() {
+        return level >= LOW_RESOLUTION ? REDUCED_RESOLUTION_SCALE : 1f;
+    }
+
+    public static String levelName(int level) {
+        return LEVEL_NAMES[level];
+    }
+
+    private void setLevel(int newLevel) {
+        level = newLevel;
+        levelChanges++;
+        headroomFrames = 0;
+        for (int i = 0; i < WINDOW; i++) {
+            window[i] = 0;
+        }
+        windowSum = 0;
+        windowFill = 0;
+        windowIndex = 0;
+    }
+}
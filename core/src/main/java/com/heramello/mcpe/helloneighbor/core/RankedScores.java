@@ -0,0 +1,138 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import java.util.ArrayList;
+
+/**
+ * Record numbers ordered by score, best first, with ties in play order.
+ *
+ * Entries live in pages of at most {@link #PAGE_CAPACITY}, so inserting a run
+ * shifts part of one page instead of the whole ranking, and a full page is split
+ * in two. Finding a rank walks the page sizes and then binary-searches one page.
+ */
+final class RankedScores {
+
+    static final int PAGE_CAPACITY = 256;
+
+    private final ArrayList<Page> pages = new ArrayList<>();
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /** Adds a run ranked below every run already in; for loading an already sorted ranking. */
+    void addLast(int recordNumber, int score) {
+        Page page = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+        if (page == null || page.size == PAGE_CAPACITY) {
+            page = new Page();
+            pages.add(page);
+        }
+        page.insertAt(page.size, recordNumber, score);
+        size++;
+    }
+
+    /** Inserts a run below every equal-or-better one and returns its rank. */
+    int insert(int recordNumber, int score) {
+        if (pages.isEmpty()) pages.add(new Page());
+
+        // The run goes into the first page ending with a worse score, or the last one
+        int rank = 0;
+        int p = 0;
+        while (p < pages.size() - 1 && pages.get(p).lastScore() >= score) {
+            rank += pages.get(p).size;
+            p++;
+        }
+        Page page = pages.get(p);
+        int index = page.firstBelow(score);
+        if (page.size == PAGE_CAPACITY) {
+            Page next = page.splitOff();
+            pages.add(p + 1, next);
+            if (index > page.size) {
+                index -= page.size;
+                rank += page.size;
+                page = next;
+            }
+        }
+        page.insertAt(index, recordNumber, score);
+        size++;
+        return rank + index;
+    }
+
+    /** Number of runs that scored strictly less than {@code score}. */
+    int countBelow(int score) {
+        int above = 0;
+        for (int p = 0; p < pages.size(); p++) {
+            Page page = pages.get(p);
+            if (page.lastScore() >= score) {
+                above += page.size;
+            } else {
+                return size - above - page.firstBelow(score);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Copies the record numbers ranked {@code offset} onwards into {@code out} and
+     * returns how many were copied.
+     */
+    int copyRecords(int offset, int[] out) {
+        int copied = 0;
+        int start = 0;
+        for (int p = 0; p < pages.size() && copied < out.length; p++) {
+            Page page = pages.get(p);
+            int from = Math.max(0, offset - start);
+            start += page.size;
+            if (from >= page.size) continue;
+
+            int n = Math.min(page.size - from, out.length - copied);
+            System.arraycopy(page.records, from, out, copied, n);
+            copied += n;
+        }
+        return copied;
+    }
+
+    private static final class Page {
+        final int[] records = new int[PAGE_CAPACITY];
+        final int[] scores = new int[PAGE_CAPACITY];
+        int size;
+
+        int lastScore() {
+            return scores[size - 1];
+        }
+
+        // First position whose score is below the given one
+        int firstBelow(int score) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (scores[mid] >= score) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void insertAt(int index, int recordNumber, int score) {
+            System.arraycopy(records, index, records, index + 1, size - index);
+            System.arraycopy(scores, index, scores, index + 1, size - index);
+            records[index] = recordNumber;
+            scores[index] = score;
+            size++;
+        }
+
+        // Moves the upper half into a new page
+        Page splitOff() {
+            Page next = new Page();
+            int keep = size / 2;
+            next.size = size - keep;
+            System.arraycopy(records, keep, next.records, 0, next.size);
+            System.arraycopy(scores, keep, next.scores, 0, next.size);
+            size = keep;
+            return next;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A recorded run: everything needed to re-simulate it tick for tick, plus the
+ * outcome it produced. The per-tick ship position is stored as zig-zag varint
+ * deltas, so a tick where the finger did not move costs one byte.
+ *
+ * File layout (big-endian): magic, version, seed, swarm mode, width, height,
+ * ticks per second, tick count, input byte length, input bytes, survival time, near misses.
+ */
+public class Replay {
+
+    private static final int MAGIC = 0x4E525250; // "NRRP"
+    // Bumped whenever the simulation rules change, since older runs would no
+    // longer play back to their recorded outcome
+    private static final int VERSION = 3;
+
+    final long seed;
+    final boolean swarm;
+    final int width;
+    final int height;
+    final int ticksPerSecond;
+    final int tickCount;
+    final byte[] inputs;
+    final int inputLength;
+    final long survivalTime;
+    final int nearMisses;
+
+    Replay(long seed, boolean swarm, int width, int height, int ticksPerSecond, int tickCount,
+           byte[] inputs, int inputLength, long survivalTime, int nearMisses) {
+        this.seed = seed;
+        this.swarm = swarm;
+        this.width = width;
+        this.height = height;
+        this.ticksPerSecond = ticksPerSecond;
+        this.tickCount = tickCount;
+        this.inputs = inputs;
+        this.inputLength = inputLength;
+        this.survivalTime = survivalTime;
+        this.nearMisses = nearMisses;
+    }
+
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(seed);
+        out.writeBoolean(swarm);
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeInt(ticksPerSecond);
+        out.writeInt(tickCount);
+        out.writeInt(inputLength);
+        out.write(inputs, 0, inputLength);
+        out.writeLong(survivalTime);
+        out.writeInt(nearMisses);
+        out.flush();
+    }
+
+    public static Replay readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a replay file");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        long seed = in.readLong();
+        boolean swarm = in.readBoolean();
+        int width = in.readInt();
+        int height = in.readInt();
+        int ticksPerSecond = in.readInt();
+        int tickCount = in.readInt();
+        int inputLength = in.readInt();
+        byte[] inputs = new byte[inputLength];
+        in.readFully(inputs);
+        long survivalTime = in.readLong();
+        int nearMisses = in.readInt();
+        return new Replay(seed, swarm, width, height, ticksPerSecond, tickCount,
+                inputs, inputLength, survivalTime, nearMisses);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isSwarm() {
+        return swarm;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public long getSurvivalTime() {
+        return survivalTime;
+    }
+
+    public int getNearMisses() {
+        return nearMisses;
+    }
+
+    /** Encoded size of the input stream in bytes. */
+    public int getInputLength() {
+        return inputLength;
+    }
+}
@@ -0,0 +1,66 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Re-simulates a {@link Replay} headlessly, as fast as the CPU allows, and checks
+ * that it reaches the outcome that was recorded.
+ */
+public class ReplayPlayer {
+
+    private final Replay replay;
+    private final GameWorld world;
+    private int position;
+    private int ticksPlayed;
+    private int x;
+
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        world = new GameWorld(replay.seed, replay.swarm ? ForkJoinPool.commonPool() : null,
+                replay.ticksPerSecond);
+        world.resize(replay.width, replay.height);
+        x = replay.width / 2;
+    }
+
+    /** Advances one recorded tick. Returns false once the replay is exhausted. */
+    public boolean step() {
+        if (ticksPlayed >= replay.tickCount) return false;
+
+        int zigzag = readVarInt();
+        x += (zigzag >>> 1) ^ -(zigzag & 1);
+        world.moveShip(x);
+        world.tick();
+        ticksPlayed++;
+        return true;
+    }
+
+    /** Plays every remaining tick. */
+    public void playToEnd() {
+        while (step()) {
+            // keep going
+        }
+    }
+
+    /** True if the re-simulated run ended exactly where the recording did. */
+    public boolean matchesRecording() {
+        return ticksPlayed == replay.tickCount
+                && world.getSurvivalTime() == replay.survivalTime
+                && world.getNearMisses() == replay.nearMisses;
+    }
+
+    public GameWorld getWorld() {
+        return world;
+    }
+
+    private int readVarInt() {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = replay.inputs[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,89 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+/**
+ * Captures the ship position of every tick of a run. Call {@link #recordTick}
+ * right before each {@link GameWorld#tick()}. Inputs go into fixed-size blocks
+ * that are kept for the next recording, so a run allocates only the blocks its
+ * inputs fill, a byte or two per tick, and never copies what it already has.
+ */
+public class ReplayRecorder {
+
+    private static final int BLOCK_SIZE = 4096;
+
+    private byte[][] blocks = new byte[16][];
+    // Blocks in use; the last one is being filled
+    private int blockCount;
+    private int position = BLOCK_SIZE;
+    private int length;
+    private int tickCount;
+    private int lastX;
+
+    private GameWorld world;
+
+    /** Starts a new recording of {@code world}, which must already be sized. */
+    public void start(GameWorld world) {
+        this.world = world;
+        blockCount = 0;
+        position = BLOCK_SIZE;
+        length = 0;
+        tickCount = 0;
+        lastX = world.getWidth() / 2;
+    }
+
+    public boolean isRecording() {
+        return world != null;
+    }
+
+    public void recordTick() {
+        int x = world.getShipTargetX();
+        int delta = x - lastX;
+        lastX = x;
+        writeVarInt((delta << 1) ^ (delta >> 31));
+        tickCount++;
+    }
+
+    /** Ends the recording, capturing the world's current outcome. */
+    public Replay finish() {
+        byte[] inputs = new byte[length];
+        for (int b = 0, copied = 0; copied < length; b++) {
+            int n = Math.min(BLOCK_SIZE, length - copied);
+            System.arraycopy(blocks[b], 0, inputs, copied, n);
+            copied += n;
+        }
+        Replay replay = new Replay(world.getSeed(), world.isSwarm(), world.getWidth(), world.getHeight(),
+                world.getTicksPerSecond(), tickCount, inputs, length,
+                world.getSurvivalTime(), world.getNearMisses());
+        world = null;
+        return replay;
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    private void writeByte(int value) {
+        if (position == BLOCK_SIZE) {
+            nextBlock();
+        }
+        blocks[blockCount - 1][position++] = (byte) value;
+        length++;
+    }
+
+    // Moves on to the next block, reusing one from an earlier recording if there is one
+    private void nextBlock() {
+        if (blockCount == blocks.length) {
+            byte[][] grown = new byte[blocks.length * 2][];
+            System.arraycopy(blocks, 0, grown, 0, blocks.length);
+            blocks = grown;
+        }
+        if (blocks[blockCount] == null) {
+            blocks[blockCount] = new byte[BLOCK_SIZE];
+        }
+        blockCount++;
+        position = 0;
+    }
+}
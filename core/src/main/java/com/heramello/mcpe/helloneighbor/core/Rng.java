@@ -0,0 +1,63 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+/**
+ * The 48-bit linear congruential generator of {@link java.util.Random}, producing
+ * exactly the same sequence for the same seed, but with its state readable and
+ * writable so a world can be snapshotted and resumed mid-run. Not thread-safe.
+ */
+public class Rng {
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    public Rng(long seed) {
+        setSeed(seed);
+    }
+
+    public void setSeed(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+
+    private int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    public int nextInt() {
+        return next(32);
+    }
+
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        if ((bound & -bound) == bound) {
+            return (int) ((bound * (long) next(31)) >> 31);
+        }
+        int bits, value;
+        do {
+            bits = next(31);
+            value = bits % bound;
+        } while (bits - value + (bound - 1) < 0);
+        return value;
+    }
+
+    public long nextLong() {
+        return ((long) next(32) << 32) + next(32);
+    }
+
+    public float nextFloat() {
+        return next(24) / ((float) (1 << 24));
+    }
+}
@@ -0,0 +1,387 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Every run ever played, in an append-only file of fixed-size records, plus a
+ * small fixed-size index header holding each game mode's aggregates.
+ *
+ * Appending a run writes its record and then rewrites the header in place; the
+ * best score, totals and recent-runs window are never recomputed by scanning the
+ * log. The header is derived entirely from the log, so it is not synced: one that
+ * is stale is caught up by replaying the records after it, and one that is torn or
+ * ahead of the log is rebuilt from it.
+ *
+ * Runs are ranked per mode. A mode's ranking is not stored; it is built with one
+ * sequential scan of the log the first time it is asked for, and kept up to date
+ * by later appends.
+ *
+ * Not thread-safe; meant to be owned by one background thread.
+ */
+public class RunLog {
+
+    /** Runs in the rolling average. */
+    public static final int RECENT_RUNS = 20;
+
+    private static final int LOG_MAGIC = 0x4E524C47; // "NRLG"
+    private static final int INDEX_MAGIC = 0x4E524958; // "NRIX"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    // score, time, nearMisses, finishedAtMillis, mode
+    private static final int RECORD_BYTES = 4 + 8 + 4 + 8 + 1;
+    // magic, version, records, per-mode aggregates, CRC
+    private static final int INDEX_BYTES = 4 + 4 + 4 + RunRecord.MODES * Aggregates.BYTES + 4;
+
+    private final File logFile;
+    private final File indexFile;
+    private RandomAccessFile log;
+    private RandomAccessFile index;
+
+    // Records in the log, over every mode
+    private int records;
+    private final Aggregates[] modes = new Aggregates[RunRecord.MODES];
+    // Built on first use; null until then
+    private final RankedScores[] rankings = new RankedScores[RunRecord.MODES];
+
+    private final byte[] header = new byte[INDEX_BYTES];
+    private final ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+    private final CRC32 crc = new CRC32();
+
+    public RunLog(File logFile, File indexFile) {
+        this.logFile = logFile;
+        this.indexFile = indexFile;
+        for (int i = 0; i < modes.length; i++) {
+            modes[i] = new Aggregates();
+        }
+    }
+
+    public void open() throws IOException {
+        log = new RandomAccessFile(logFile, "rw");
+        if (log.length() < HEADER_BYTES) {
+            log.setLength(0);
+            log.writeInt(LOG_MAGIC);
+            log.writeInt(VERSION);
+        } else {
+            log.seek(0);
+            if (log.readInt() != LOG_MAGIC || log.readInt() != VERSION) {
+                throw new IOException("Unrecognized run log " + logFile);
+            }
+        }
+        // Drop a half-written trailing record
+        records = (int) ((log.length() - HEADER_BYTES) / RECORD_BYTES);
+        log.setLength(HEADER_BYTES + (long) records * RECORD_BYTES);
+
+        index = new RandomAccessFile(indexFile, "rw");
+        int indexed = readHeader();
+        if (indexed < 0 || indexed > records) {
+            index.setLength(INDEX_BYTES);
+            indexed = 0;
+            for (Aggregates aggregates : modes) {
+                aggregates.reset();
+            }
+        }
+        if (indexed < records) {
+            DataInputStream in = openLogAt(HEADER_BYTES + (long) indexed * RECORD_BYTES);
+            try {
+                for (int i = indexed; i < records; i++) {
+                    RunRecord run = readRecord(in);
+                    modes[run.mode].add(run.score, run.time, run.nearMisses);
+                }
+            } finally {
+                in.close();
+            }
+            writeHeader();
+        }
+        Arrays.fill(rankings, null);
+    }
+
+    public void close() throws IOException {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+        if (index != null) {
+            index.close();
+            index = null;
+        }
+    }
+
+    /** Appends a run and returns its rank among runs of its mode (0 is the best so far). */
+    public int append(RunRecord run) throws IOException {
+        if (run.mode < 0 || run.mode >= RunRecord.MODES) {
+            throw new IllegalArgumentException("Unknown mode " + run.mode);
+        }
+        // Built before the record is written, so the scan doesn't count it too
+        RankedScores ranking = ranking(run.mode);
+        int recordNumber = records;
+        log.seek(HEADER_BYTES + (long) recordNumber * RECORD_BYTES);
+        log.writeInt(run.score);
+        log.writeLong(run.time);
+        log.writeInt(run.nearMisses);
+        log.writeLong(run.finishedAtMillis);
+        log.writeByte(run.mode);
+        records++;
+        modes[run.mode].add(run.score, run.time, run.nearMisses);
+        writeHeader();
+        return ranking.insert(recordNumber, run.score);
+    }
+
+    public RunRecord read(int recordNumber) throws IOException {
+        log.seek(HEADER_BYTES + (long) recordNumber * RECORD_BYTES);
+        return readRecord(log);
+    }
+
+    /**
+     * Runs of {@code mode} ranked {@code offset} to {@code offset + limit - 1}, best first.
+     * The page is read in log order through one buffered stream, not a seek per run.
+     */
+    public List<RunRecord> top(int mode, int offset, int limit) throws IOException {
+        RankedScores ranking = ranking(mode);
+        int[] recordNumbers = new int[Math.max(0, Math.min(ranking.size() - offset, limit))];
+        int n = ranking.copyRecords(offset, recordNumbers);
+        if (n == 0) return new ArrayList<>(0);
+
+        // Record number in the high half, position on the page in the low half
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = ((long) recordNumbers[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        RunRecord[] page = new RunRecord[n];
+        long next = order[0] >>> 32;
+        DataInputStream in = openLogAt(HEADER_BYTES + next * RECORD_BYTES);
+        try {
+            for (int i = 0; i < n; i++) {
+                long recordNumber = order[i] >>> 32;
+                skipFully(in, (recordNumber - next) * RECORD_BYTES);
+                page[(int) order[i]] = readRecord(in);
+                next = recordNumber + 1;
+            }
+        } finally {
+            in.close();
+        }
+        return new ArrayList<>(Arrays.asList(page));
+    }
+
+    /** Deletes every run. */
+    public void clear() throws IOException {
+        log.setLength(HEADER_BYTES);
+        log.getFD().sync();
+        records = 0;
+        for (int i = 0; i < modes.length; i++) {
+            modes[i].reset();
+            rankings[i] = new RankedScores();
+        }
+        writeHeader();
+        // Both synced, so a crash can't leave an older header counting deleted runs
+        index.getFD().sync();
+    }
+
+    /** Runs of every mode. */
+    public int size() {
+        return records;
+    }
+
+    public int size(int mode) {
+        return modes[mode].count;
+    }
+
+    /** Best score in {@code mode}, or 0 with no runs. */
+    public int getBestScore(int mode) {
+        return modes[mode].bestScore;
+    }
+
+    public double getAverageScore(int mode) {
+        Aggregates aggregates = modes[mode];
+        return aggregates.count == 0 ? 0 : (double) aggregates.totalScore / aggregates.count;
+    }
+
+    /** Average score of the last {@link #RECENT_RUNS} runs in {@code mode}. */
+    public double getRecentAverageScore(int mode) {
+        Aggregates aggregates = modes[mode];
+        int n = Math.min(aggregates.count, RECENT_RUNS);
+        return n == 0 ? 0 : (double) aggregates.recentTotal / n;
+    }
+
+    public long getTotalTime(int mode) {
+        return modes[mode].totalTime;
+    }
+
+    public long getTotalNearMisses(int mode) {
+        return modes[mode].totalNearMisses;
+    }
+
+    /** Percentage (0-100) of runs in {@code mode} that scored strictly less than {@code score}. */
+    public double percentileRank(int mode, int score) throws IOException {
+        RankedScores ranking = ranking(mode);
+        if (ranking.size() == 0) return 0;
+        return 100.0 * ranking.countBelow(score) / ranking.size();
+    }
+
+    // Sorts the mode's runs from one pass over the log
+    private RankedScores ranking(int mode) throws IOException {
+        RankedScores ranking = rankings[mode];
+        if (ranking != null) return ranking;
+
+        // Best score first, then earliest run: ~score flips the order of scores
+        long[] keys = new long[modes[mode].count];
+        int n = 0;
+        DataInputStream in = openLogAt(HEADER_BYTES);
+        try {
+            for (int i = 0; i < records && n < keys.length; i++) {
+                RunRecord run = readRecord(in);
+                if (run.mode == mode) {
+                    keys[n++] = ((long) ~run.score << 32) | i;
+                }
+            }
+        } finally {
+            in.close();
+        }
+        Arrays.sort(keys, 0, n);
+        ranking = new RankedScores();
+        for (int i = 0; i < n; i++) {
+            ranking.addLast((int) keys[i], ~(int) (keys[i] >> 32));
+        }
+        rankings[mode] = ranking;
+        return ranking;
+    }
+
+    // Returns how many records the header covers, or -1 if it is missing or damaged
+    private int readHeader() throws IOException {
+        if (index.length() != INDEX_BYTES) return -1;
+        index.seek(0);
+        index.readFully(header);
+        crc.reset();
+        crc.update(header, 0, INDEX_BYTES - 4);
+        headerBuffer.clear();
+        if (headerBuffer.getInt(INDEX_BYTES - 4) != (int) crc.getValue()
+                || headerBuffer.getInt() != INDEX_MAGIC || headerBuffer.getInt() != VERSION) {
+            return -1;
+        }
+        int indexed = headerBuffer.getInt();
+        for (Aggregates aggregates : modes) {
+            aggregates.read(headerBuffer);
+        }
+        return indexed;
+    }
+
+    private void writeHeader() throws IOException {
+        headerBuffer.clear();
+        headerBuffer.putInt(INDEX_MAGIC);
+        headerBuffer.putInt(VERSION);
+        headerBuffer.putInt(records);
+        for (Aggregates aggregates : modes) {
+            aggregates.write(headerBuffer);
+        }
+        crc.reset();
+        crc.update(header, 0, INDEX_BYTES - 4);
+        headerBuffer.putInt((int) crc.getValue());
+        index.seek(0);
+        index.write(header);
+    }
+
+    private DataInputStream openLogAt(long position) throws IOException {
+        FileInputStream stream = new FileInputStream(logFile);
+        try {
+            stream.getChannel().position(position);
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+        return new DataInputStream(new BufferedInputStream(stream));
+    }
+
+    private static void skipFully(DataInputStream in, long bytes) throws IOException {
+        while (bytes > 0) {
+            long skipped = in.skip(bytes);
+            if (skipped <= 0) throw new EOFException("Run log ended early");
+            bytes -= skipped;
+        }
+    }
+
+    private static RunRecord readRecord(DataInput in) throws IOException {
+        int score = in.readInt();
+        long time = in.readLong();
+        int nearMisses = in.readInt();
+        long finishedAtMillis = in.readLong();
+        int mode = in.readByte();
+        if (mode < 0 || mode >= RunRecord.MODES) {
+            throw new IOException("Corrupt run record, mode " + mode);
+        }
+        return new RunRecord(score, time, nearMisses, finishedAtMillis, mode);
+    }
+
+    // One mode's share of the index header
+    private static final class Aggregates {
+        // count, bestScore, totalScore, totalTime, totalNearMisses, recent scores
+        static final int BYTES = 4 + 4 + 8 + 8 + 8 + 4 * RECENT_RUNS;
+
+        int count;
+        int bestScore;
+        long totalScore;
+        long totalTime;
+        long totalNearMisses;
+        // Scores of the last RECENT_RUNS runs, oldest overwritten first
+        final int[] recent = new int[RECENT_RUNS];
+        long recentTotal;
+
+        void add(int score, long time, int nearMisses) {
+            if (count == 0 || score > bestScore) bestScore = score;
+            totalScore += score;
+            totalTime += time;
+            totalNearMisses += nearMisses;
+            int slot = count % RECENT_RUNS;
+            if (count >= RECENT_RUNS) recentTotal -= recent[slot];
+            recent[slot] = score;
+            recentTotal += score;
+            count++;
+        }
+
+        void reset() {
+            count = 0;
+            bestScore = 0;
+            totalScore = 0;
+            totalTime = 0;
+            totalNearMisses = 0;
+            recentTotal = 0;
+            Arrays.fill(recent, 0);
+        }
+
+        void write(ByteBuffer out) {
+            out.putInt(count);
+            out.putInt(bestScore);
+            out.putLong(totalScore);
+            out.putLong(totalTime);
+            out.putLong(totalNearMisses);
+            for (int i = 0; i < RECENT_RUNS; i++) {
+                out.putInt(recent[i]);
+            }
+        }
+
+        void read(ByteBuffer in) {
+            count = in.getInt();
+            bestScore = in.getInt();
+            totalScore = in.getLong();
+            totalTime = in.getLong();
+            totalNearMisses = in.getLong();
+            recentTotal = 0;
+            for (int i = 0; i < RECENT_RUNS; i++) {
+                recent[i] = in.getInt();
+                if (i < count) recentTotal += recent[i];
+            }
+        }
+    }
+}
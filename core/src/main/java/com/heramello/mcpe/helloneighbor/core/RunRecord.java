@@ -0,0 +1,29 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+/** One finished run as stored in the {@link RunLog}. */
+public class RunRecord {
+
+    /** Game modes; runs are only ranked against runs of the same mode. */
+    public static final int MODE_CLASSIC = 0;
+    public static final int MODE_SWARM = 1;
+    public static final int MODES = 2;
+
+    public final int score;
+    public final long time;
+    public final int nearMisses;
+    public final long finishedAtMillis;
+    public final int mode;
+
+    /** A classic-mode run. */
+    public RunRecord(int score, long time, int nearMisses, long finishedAtMillis) {
+        this(score, time, nearMisses, finishedAtMillis, MODE_CLASSIC);
+    }
+
+    public RunRecord(int score, long time, int nearMisses, long finishedAtMillis, int mode) {
+        this.score = score;
+        this.time = time;
+        this.nearMisses = nearMisses;
+        this.finishedAtMillis = finishedAtMillis;
+        this.mode = mode;
+    }
+}
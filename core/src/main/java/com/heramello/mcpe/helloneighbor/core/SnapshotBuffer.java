@@ -0,0 +1,52 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer of {@link WorldSnapshot}s between one writer (the
+ * simulation) and one reader (the renderer). The writer fills its back snapshot
+ * and publishes it; the reader takes the newest published one. Each side owns a
+ * snapshot the other never touches, and the third sits in between, so neither
+ * side ever waits for the other and the reader never sees a half-written state.
+ * A snapshot the reader did not get to in time is simply overwritten.
+ */
+public class SnapshotBuffer {
+
+    // The shared slot is stored as its index plus this flag while it holds a
+    // snapshot the reader has not taken yet
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+
+    private final WorldSnapshot[] snapshots = {new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot()};
+    private final AtomicInteger middle = new AtomicInteger(1);
+    // Owned by the writer and the reader respectively
+    private int back = 2;
+    private int front = 0;
+
+    /** The snapshot the writer may fill; writer thread only. */
+    public WorldSnapshot back() {
+        return snapshots[back];
+    }
+
+    /** Makes the back snapshot the newest one and hands the writer a free one. */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /** True if a snapshot was published since the reader last took one. */
+    public boolean hasFresh() {
+        return (middle.get() & FRESH) != 0;
+    }
+
+    /**
+     * Returns the newest published snapshot; reader thread only. It stays valid
+     * until the next call. If nothing new was published, the previous one is
+     * returned again.
+     */
+    public WorldSnapshot acquire() {
+        if (hasFresh()) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return snapshots[front];
+    }
+}
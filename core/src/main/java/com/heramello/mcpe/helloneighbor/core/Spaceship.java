@@ -0,0 +1,12 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+public class Spaceship {
+    public float x, y, width, height;
+
+    public Spaceship(float x, float y, float width, float height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+}
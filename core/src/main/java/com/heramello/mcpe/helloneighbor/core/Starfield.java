@@ -0,0 +1,137 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Parallax background stars in a few depth layers. Stars are scattered once per
+ * playfield size and then never move; each layer only advances a scroll offset,
+ * so a tick costs one addition per layer and a snapshot copies a few floats.
+ *
+ * Each layer keeps its stars as packed x,y pairs in one float[], ready for a
+ * single Canvas.drawPoints call translated by the layer's offset. Every star is
+ * stored twice, one playfield height apart, so the layer wraps seamlessly: as a
+ * star scrolls off the bottom its copy scrolls in at the top. The arrays are
+ * replaced, never written, when the size changes, so a snapshot may keep them.
+ */
+public class Starfield {
+
+    public static final int LAYERS = 3;
+
+    // Far to near: many slow, dim, small stars up to a few fast, bright ones.
+    // The near layer matches the original 50 stars at 2 px per tick.
+    private static final int[] COUNTS = {1200, 500, 50};
+    private static final float[] SPEEDS = {0.5f, 1.2f, 2f};
+    private static final float[] SIZES = {1.5f, 2.5f, 4f};
+    private static final int[] ALPHAS = {90, 160, 255};
+
+    private final float[][] points = new float[LAYERS][];
+    private final float[] offsets = new float[LAYERS];
+    // SPEEDS scaled to the world's tick length
+    private final float[] speeds = new float[LAYERS];
+    private final Rng random;
+    private int width, height;
+
+    public Starfield(Rng random) {
+        this(random, 1);
+    }
+
+    /** {@code stepsPerTick} is how many {@link FixedStepClock#TICKS_PER_SECOND} steps one tick covers. */
+    public Starfield(Rng random, int stepsPerTick) {
+        this.random = random;
+        for (int layer = 0; layer < LAYERS; layer++) {
+            points[layer] = new float[COUNTS[layer] * 4];
+            speeds[layer] = SPEEDS[layer] * stepsPerTick;
+        }
+    }
+
+    /** Scatters every star over a playfield of the given size. */
+    public void resize(int w, int h) {
+        width = w;
+        height = h;
+        for (int layer = 0; layer < LAYERS; layer++) {
+            float[] p = new float[COUNTS[layer] * 4];
+            for (int i = 0; i < p.length; i += 4) {
+                setStar(p, i, random.nextFloat() * w, random.nextFloat() * h);
+            }
+            points[layer] = p;
+            offsets[layer] = 0;
+        }
+    }
+
+    public void update() {
+        if (height <= 0) return;
+
+        for (int layer = 0; layer < LAYERS; layer++) {
+            float offset = offsets[layer] + speeds[layer];
+            offsets[layer] = offset >= height ? offset - height : offset;
+        }
+    }
+
+    // A star at (x, y) and its copy one height above
+    private void setStar(float[] p, int i, float x, float y) {
+        p[i] = x;
+        p[i + 1] = y;
+        p[i + 2] = x;
+        p[i + 3] = y - height;
+    }
+
+    void writeState(DataOutputStream out) throws IOException {
+        out.writeLong(random.getState());
+        out.writeInt(width);
+        out.writeInt(height);
+        for (int layer = 0; layer < LAYERS; layer++) {
+            out.writeFloat(offsets[layer]);
+            float[] p = points[layer];
+            for (int i = 0; i < p.length; i += 4) {
+                out.writeFloat(p[i]);
+                out.writeFloat(p[i + 1]);
+            }
+        }
+    }
+
+    void readState(DataInputStream in) throws IOException {
+        random.setState(in.readLong());
+        width = in.readInt();
+        height = in.readInt();
+        for (int layer = 0; layer < LAYERS; layer++) {
+            offsets[layer] = in.readFloat();
+            float[] p = new float[COUNTS[layer] * 4];
+            for (int i = 0; i < p.length; i += 4) {
+                setStar(p, i, in.readFloat(), in.readFloat());
+            }
+            points[layer] = p;
+        }
+    }
+
+    /**
+     * Packed x,y pairs of the layer, each star followed by its wrap copy, so
+     * {@code 2 * getCount(layer)} points. Never modified once returned.
+     */
+    public float[] getPoints(int layer) {
+        return points[layer];
+    }
+
+    /** How far the layer has scrolled down, in [0, playfield height). */
+    public float getOffset(int layer) {
+        return offsets[layer];
+    }
+
+    public int getCount(int layer) {
+        return COUNTS[layer];
+    }
+
+    /** Pixels per tick. */
+    public float getSpeed(int layer) {
+        return speeds[layer];
+    }
+
+    public float getSize(int layer) {
+        return SIZES[layer];
+    }
+
+    public int getAlpha(int layer) {
+        return ALPHAS[layer];
+    }
+}
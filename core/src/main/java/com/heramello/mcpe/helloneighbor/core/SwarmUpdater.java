@@ -0,0 +1,227 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Moves, culls and proximity-tests every meteor of a large field on a fork-join
+ * pool, in fixed-size chunks and without locks:
+ *
+ * <ol>
+ * <li>Each chunk reads the live pool, moves its meteors, classifies them against
+ * the ship and counts its survivors, new near misses and hits. It writes only
+ * its own slots of a scratch array.</li>
+ * <li>The chunk results are merged on the calling thread, in chunk order, into
+ * totals and into the offset where each chunk's survivors go.</li>
+ * <li>Each chunk copies its survivors, in order, to its offset in the back
+ * buffer, and the back buffer is swapped in as the live pool.</li>
+ * </ol>
+ *
+ * Chunk boundaries and merge order never depend on the pool, so the outcome is
+ * identical for any number of threads, including one.
+ */
+class SwarmUpdater {
+
+    // Meteors per task. Big enough that fork-join overhead is noise, small enough
+    // that a few thousand meteors still spread over every core.
+    static final int CHUNK = 512;
+    private static final byte DEAD = -1;
+
+    private final ForkJoinPool pool;
+    private final MeteorPool back = new MeteorPool();
+    private byte[] nextProximity = new byte[CHUNK];
+
+    // Per-chunk results of phase 1, and survivor offsets for phase 2
+    private int[] chunkAlive = new int[1];
+    private int[] chunkNearMisses = new int[1];
+    private boolean[] chunkHit = new boolean[1];
+    private int[] chunkOffset = new int[1];
+    private ChunkTask[] tasks = new ChunkTask[0];
+    private final RootTask root = new RootTask();
+
+    // Inputs of the tick in progress
+    private MeteorPool front;
+    private float shipCenterX, shipCenterY, shipRadius;
+    private int height;
+    private int steps;
+    private int chunks;
+    private boolean compacting;
+
+    // Merged results of the last update()
+    private int nearMisses;
+    private boolean hit;
+
+    SwarmUpdater(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /** {@code steps} is how many speed units each meteor moves this tick. */
+    void update(MeteorPool meteors, int height, int steps,
+                float shipCenterX, float shipCenterY, float shipRadius) {
+        this.front = meteors;
+        this.height = height;
+        this.steps = steps;
+        this.shipCenterX = shipCenterX;
+        this.shipCenterY = shipCenterY;
+        this.shipRadius = shipRadius;
+        int count = meteors.size();
+        chunks = (count + CHUNK - 1) / CHUNK;
+        prepare(count);
+
+        compacting = false;
+        run();
+
+        nearMisses = 0;
+        hit = false;
+        int alive = 0;
+        for (int c = 0; c < chunks; c++) {
+            chunkOffset[c] = alive;
+            alive += chunkAlive[c];
+            nearMisses += chunkNearMisses[c];
+            hit |= chunkHit[c];
+        }
+
+        compacting = true;
+        run();
+        back.setSize(alive);
+        meteors.swap(back);
+        front = null;
+    }
+
+    /** Near misses first registered during the last update. */
+    int getNearMisses() {
+        return nearMisses;
+    }
+
+    /** Whether any meteor hit the ship during the last update. */
+    boolean isHit() {
+        return hit;
+    }
+
+    private void run() {
+        if (chunks == 0) return;
+        if (chunks == 1) {
+            // Not worth a hand-off to the pool
+            runChunk(0);
+        } else {
+            root.reinitialize();
+            pool.invoke(root);
+        }
+    }
+
+    private void runChunk(int c) {
+        if (compacting) {
+            compactChunk(c);
+        } else {
+            classifyChunk(c);
+        }
+    }
+
+    // Phase 1: move and classify meteors [c * CHUNK, ...), leaving the pool untouched
+    private void classifyChunk(int c) {
+        int from = c * CHUNK;
+        int to = Math.min(front.size(), from + CHUNK);
+        float[] x = front.x, y = front.y, size = front.size, speed = front.speed;
+        int alive = 0;
+        int near = 0;
+        boolean chunkHitShip = false;
+        for (int i = from; i < to; i++) {
+            float newY = y[i] + speed[i] * steps;
+            // Tested before culling: the sweep may cross the ship on its way out
+            byte p = GameWorld.classifyProximity(x[i], y[i], newY, size[i],
+                    shipCenterX, shipCenterY, shipRadius);
+            if (p == MeteorPool.PROXIMITY_HIT) {
+                chunkHitShip = true;
+            } else if (p == MeteorPool.PROXIMITY_NEAR && !front.isCountedAsNearMiss(i)) {
+                near++;
+            }
+            if (newY > height) {
+                nextProximity[i] = DEAD;
+                continue;
+            }
+            alive++;
+            nextProximity[i] = p;
+        }
+        chunkAlive[c] = alive;
+        chunkNearMisses[c] = near;
+        chunkHit[c] = chunkHitShip;
+    }
+
+    // Phase 2: copy the chunk's survivors to their merged offset in the back buffer
+    private void compactChunk(int c) {
+        int from = c * CHUNK;
+        int to = Math.min(front.size(), from + CHUNK);
+        int out = chunkOffset[c];
+        for (int i = from; i < to; i++) {
+            byte p = nextProximity[i];
+            if (p == DEAD) continue;
+
+            back.x[out] = front.x[i];
+            back.prevY[out] = front.y[i];
+            back.y[out] = front.y[i] + front.speed[i] * steps;
+            back.size[out] = front.size[i];
+            back.speed[out] = front.speed[i];
+            back.proximity[out] = p;
+            back.setCountedAsNearMiss(out, front.isCountedAsNearMiss(i) || p == MeteorPool.PROXIMITY_NEAR);
+            out++;
+        }
+    }
+
+    // Sizes every buffer for this tick; allocates only when the field has grown
+    private void prepare(int count) {
+        back.ensureCapacity(Math.max(count, front.capacity()));
+        if (nextProximity.length < count) {
+            nextProximity = new byte[front.capacity()];
+        }
+        if (chunkAlive.length < chunks) {
+            int n = Math.max(chunks, chunkAlive.length * 2);
+            chunkAlive = new int[n];
+            chunkNearMisses = new int[n];
+            chunkHit = new boolean[n];
+            chunkOffset = new int[n];
+        }
+        if (tasks.length < chunks) {
+            ChunkTask[] grown = new ChunkTask[Math.max(chunks, tasks.length * 2)];
+            System.arraycopy(tasks, 0, grown, 0, tasks.length);
+            for (int c = tasks.length; c < grown.length; c++) {
+                grown[c] = new ChunkTask(c);
+            }
+            tasks = grown;
+        }
+    }
+
+    private final class RootTask extends RecursiveAction {
+        // Never serialized; declared to keep the build warning-free
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            // Tasks are reused every tick instead of allocated. Fork all but the
+            // first, run that one on this thread, then join the rest.
+            for (int c = 1; c < chunks; c++) {
+                tasks[c].reinitialize();
+                tasks[c].fork();
+            }
+            tasks[0].reinitialize();
+            tasks[0].invoke();
+            for (int c = 1; c < chunks; c++) {
+                tasks[c].join();
+            }
+        }
+    }
+
+    private final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int chunk;
+
+        ChunkTask(int chunk) {
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            runChunk(chunk);
+        }
+    }
+}
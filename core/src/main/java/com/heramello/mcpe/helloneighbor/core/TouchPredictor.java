@@ -0,0 +1,110 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+/**
+ * Predicts where the finger will be a little ahead of now, so the ship can be
+ * drawn where the finger is rather than where it was a frame ago.
+ *
+ * The velocity is a least-squares fit over the samples of the last
+ * {@link #FIT_WINDOW_MILLIS}. A prediction extrapolates from the newest sample
+ * along it, never more than {@link #MAX_LEAD_MILLIS} ahead, and not at all once
+ * the finger has stopped sending samples. Fixed memory; single-threaded.
+ */
+public class TouchPredictor {
+
+    // Long enough to hold several samples at any touch rate, short enough to
+    // follow a change of direction within a frame or two
+    static final long FIT_WINDOW_MILLIS = 48;
+    // Beyond this, extrapolation overshoots more than it helps
+    static final long MAX_LEAD_MILLIS = 40;
+    // A moving finger reports at least every frame; silence this long means it rests
+    static final long STALE_MILLIS = 50;
+
+    private static final int CAPACITY = 32;
+
+    private final float[] xs = new float[CAPACITY];
+    private final long[] times = new long[CAPACITY];
+    // Ring of the newest samples; newest at index (start + count - 1)
+    private int start;
+    private int count;
+
+    /** Adds a sample; samples must arrive oldest first. */
+    public void add(float x, long timeMillis) {
+        if (count > 0) {
+            long newestTime = times[index(count - 1)];
+            if (timeMillis < newestTime) return;
+            // A new stroke, or a finger that rested: older motion says nothing now
+            if (timeMillis - newestTime > STALE_MILLIS) reset();
+        }
+        if (count == CAPACITY) {
+            start = (start + 1) % CAPACITY;
+            count--;
+        }
+        int i = index(count++);
+        xs[i] = x;
+        times[i] = timeMillis;
+    }
+
+    /** Makes this predictor hold the same samples as {@code other}, without allocating. */
+    public void copyFrom(TouchPredictor other) {
+        System.arraycopy(other.xs, 0, xs, 0, CAPACITY);
+        System.arraycopy(other.times, 0, times, 0, CAPACITY);
+        start = other.start;
+        count = other.count;
+    }
+
+    public void reset() {
+        start = 0;
+        count = 0;
+    }
+
+    public boolean hasSample() {
+        return count > 0;
+    }
+
+    /** Velocity in pixels per millisecond; 0 without two distinct sample times in the window. */
+    public float velocity() {
+        if (count < 2) return 0;
+
+        long newestTime = times[index(count - 1)];
+        int first = count - 1;
+        while (first > 0 && newestTime - times[index(first - 1)] <= FIT_WINDOW_MILLIS) {
+            first--;
+        }
+        int n = count - first;
+        if (n < 2) return 0;
+
+        // Times relative to the newest sample keep the sums small and exact
+        double meanT = 0, meanX = 0;
+        for (int k = first; k < count; k++) {
+            meanT += times[index(k)] - newestTime;
+            meanX += xs[index(k)];
+        }
+        meanT /= n;
+        meanX /= n;
+        double covariance = 0, variance = 0;
+        for (int k = first; k < count; k++) {
+            double dt = times[index(k)] - newestTime - meanT;
+            covariance += dt * (xs[index(k)] - meanX);
+            variance += dt * dt;
+        }
+        return variance > 0 ? (float) (covariance / variance) : 0;
+    }
+
+    /**
+     * Where the finger is expected to be {@code leadMillis} after {@code nowMillis},
+     * clamped to [{@code min}, {@code max}]. Call only once {@link #hasSample()}.
+     */
+    public float predict(long nowMillis, long leadMillis, float min, float max) {
+        int newest = index(count - 1);
+        float x = xs[newest];
+        if (nowMillis - times[newest] <= STALE_MILLIS) {
+            long lead = Math.min(nowMillis + leadMillis - times[newest], MAX_LEAD_MILLIS);
+            if (lead > 0) x += velocity() * lead;
+        }
+        return Math.max(min, Math.min(max, x));
+    }
+
+    private int index(int k) {
+        return (start + k) % CAPACITY;
+    }
+}
@@ -0,0 +1,164 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+/**
+ * Everything the renderer needs from one tick of a {@link GameWorld}, copied out
+ * so drawing never reads state the simulation is still changing. Snapshots are
+ * recycled through a {@link SnapshotBuffer}: the simulation fills one with
+ * {@link #capture}, and once published only its reader may change it, through
+ * {@link #predictShip}, until it is handed back.
+ * Capturing allocates only when the meteor pool outgrows the snapshot's copy.
+ */
+public class WorldSnapshot {
+
+    private final MeteorPool meteors = new MeteorPool();
+    // The starfield's arrays themselves, which it never writes, and their offsets
+    private final float[][] stars = new float[Starfield.LAYERS][];
+    private final float[] starOffsets = new float[Starfield.LAYERS];
+    private final Spaceship spaceship = new Spaceship(0, 0, 0, 0);
+    private boolean hasSpaceship;
+    private int width, height;
+    // The touch samples the ship position came from, for predictShip()
+    private final TouchPredictor touch = new TouchPredictor();
+
+    private long ticks;
+    private long totalSpawns;
+    private long survivalTime;
+    private int nearMisses;
+    private boolean gameOver;
+    private float shakeOffsetX, shakeOffsetY;
+
+    // Set by the game loop when it publishes the snapshot
+    private float alpha;
+    private long publishedNanos;
+    private long updateNanos;
+    private long inputTime = -1;
+
+    /** Copies the current state of {@code world}; call only on the thread that ticks it. */
+    public void capture(GameWorld world) {
+        meteors.copyFrom(world.getMeteors());
+
+        Starfield starfield = world.getStarfield();
+        for (int layer = 0; layer < Starfield.LAYERS; layer++) {
+            stars[layer] = starfield.getPoints(layer);
+            starOffsets[layer] = starfield.getOffset(layer);
+        }
+
+        Spaceship ship = world.getSpaceship();
+        hasSpaceship = ship != null;
+        if (hasSpaceship) {
+            spaceship.x = ship.x;
+            spaceship.y = ship.y;
+            spaceship.width = ship.width;
+            spaceship.height = ship.height;
+        }
+
+        width = world.getWidth();
+        height = world.getHeight();
+        ticks = world.getTicks();
+        totalSpawns = world.getTotalSpawns();
+        survivalTime = world.getSurvivalTime();
+        nearMisses = world.getNearMisses();
+        gameOver = world.isGameOver();
+        shakeOffsetX = world.getShakeOffsetX();
+        shakeOffsetY = world.getShakeOffsetY();
+    }
+
+    /** Copies the touch samples the world has applied so far; call along with {@link #capture}. */
+    public void captureTouch(TouchPredictor predictor) {
+        touch.copyFrom(predictor);
+    }
+
+    /**
+     * Moves the captured ship to where the finger is predicted to be
+     * {@code leadMillis} after {@code nowMillis}, for drawing only: the world,
+     * and so collisions and replays, keep the newest real sample. Call on the
+     * thread that acquired the snapshot.
+     */
+    public void predictShip(long nowMillis, long leadMillis) {
+        if (!hasSpaceship || !touch.hasSample()) return;
+
+        // Same placement as GameWorld.moveShip()
+        float x = Math.round(touch.predict(nowMillis, leadMillis, 0, width)) - spaceship.width / 2;
+        spaceship.x = Math.max(0, Math.min(width - spaceship.width, x));
+    }
+
+    /**
+     * Frame timing that travels with the snapshot: the interpolation factor and
+     * clock time at publication, how long the simulation took to produce it, and
+     * the event time of the newest input it reflects (or -1).
+     */
+    public void setTiming(float alpha, long publishedNanos, long updateNanos, long inputTime) {
+        this.alpha = alpha;
+        this.publishedNanos = publishedNanos;
+        this.updateNanos = updateNanos;
+        this.inputTime = inputTime;
+    }
+
+    /** The captured meteors; must not be modified. */
+    public MeteorPool getMeteors() {
+        return meteors;
+    }
+
+    /** Packed x,y pairs of a star layer, as in {@link Starfield#getPoints}; must not be modified. */
+    public float[] getStarPoints(int layer) {
+        return stars[layer];
+    }
+
+    /** Scroll offset of a star layer, as in {@link Starfield#getOffset}. */
+    public float getStarOffset(int layer) {
+        return starOffsets[layer];
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /** Null before the world had a playfield size. */
+    public Spaceship getSpaceship() {
+        return hasSpaceship ? spaceship : null;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public long getTotalSpawns() {
+        return totalSpawns;
+    }
+
+    public long getSurvivalTime() {
+        return survivalTime;
+    }
+
+    public int getNearMisses() {
+        return nearMisses;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public float getShakeOffsetX() {
+        return shakeOffsetX;
+    }
+
+    public float getShakeOffsetY() {
+        return shakeOffsetY;
+    }
+
+    public float getAlpha() {
+        return alpha;
+    }
+
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    public long getInputTime() {
+        return inputTime;
+    }
+}
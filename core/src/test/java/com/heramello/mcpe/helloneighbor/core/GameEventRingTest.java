@@ -0,0 +1,101 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GameEventRingTest {
+
+    @Test
+    public void everyConsumer_seesEveryEventInOrder() {
+        GameEventRing ring = new GameEventRing(8);
+        GameEventRing.Consumer first = ring.addConsumer();
+        GameEventRing.Consumer second = ring.addConsumer();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(ring.publish(GameEventRing.NEAR_MISS, i, i * 10));
+        }
+
+        final StringBuilder seen = new StringBuilder();
+        GameEventRing.Handler handler = new GameEventRing.Handler() {
+            @Override
+            public void onEvent(int type, long tick, long value) {
+                seen.append(tick).append(':').append(value).append(' ');
+            }
+        };
+        assertEquals(5, first.drain(handler));
+        assertEquals(5, second.drain(handler));
+        assertEquals(0, first.drain(handler));
+        assertEquals("0:0 1:10 2:20 3:30 4:40 0:0 1:10 2:20 3:30 4:40 ", seen.toString());
+    }
+
+    @Test
+    public void slowConsumer_causesDropsInsteadOfOverwrites() {
+        GameEventRing ring = new GameEventRing(4);
+        GameEventRing.Consumer consumer = ring.addConsumer();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.publish(GameEventRing.MILESTONE, i, 0));
+        }
+        assertFalse(ring.publish(GameEventRing.MILESTONE, 4, 0));
+        assertEquals(1, ring.getDropped());
+
+        final long[] lastTick = {-1};
+        consumer.drain(new GameEventRing.Handler() {
+            @Override
+            public void onEvent(int type, long tick, long value) {
+                lastTick[0] = tick;
+            }
+        });
+        assertEquals(3, lastTick[0]);
+        assertTrue(ring.publish(GameEventRing.MILESTONE, 5, 0));
+    }
+
+    @Test
+    public void controlEvents_getThroughAFullRing() {
+        GameEventRing ring = new GameEventRing(4);
+        ring.addConsumer();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.publish(GameEventRing.NEAR_MISS, i, i));
+        }
+        assertFalse(ring.publish(GameEventRing.NEAR_MISS, 4, 4));
+        assertTrue(ring.publish(GameEventRing.COLLISION, 5, 4));
+        assertTrue(ring.publish(GameEventRing.GAME_OVER, 5, 4));
+        assertEquals(1, ring.getDropped());
+    }
+
+    @Test
+    public void waitingConsumer_isWokenByPublish() throws Exception {
+        final GameEventRing ring = new GameEventRing(64);
+        final GameEventRing.Consumer consumer = ring.addConsumer();
+        final long[] sum = new long[1];
+        final int events = 10_000;
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                int seen = 0;
+                GameEventRing.Handler handler = new GameEventRing.Handler() {
+                    @Override
+                    public void onEvent(int type, long tick, long value) {
+                        sum[0] += value;
+                    }
+                };
+                while (seen < events) {
+                    int n = consumer.drain(handler);
+                    seen += n;
+                    if (n == 0) consumer.await(0);
+                }
+            }
+        });
+        reader.start();
+
+        long expected = 0;
+        for (int i = 1; i <= events; i++) {
+            while (!ring.publish(GameEventRing.NEAR_MISS, i, i)) {
+                Thread.yield();
+            }
+            expected += i;
+        }
+        reader.join(5_000);
+        assertFalse(reader.isAlive());
+        assertEquals(expected, sum[0]);
+    }
+}
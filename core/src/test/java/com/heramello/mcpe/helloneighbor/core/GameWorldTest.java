@@ -0,0 +1,126 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GameWorldTest {
+
+    @Test
+    public void tick_advancesSurvivalTimeBySimulatedSeconds() {
+        GameWorld world = new GameWorld(1);
+        world.resize(1080, 2400);
+        for (int i = 0; i < FixedStepClock.TICKS_PER_SECOND * 3; i++) {
+            world.tick();
+        }
+        assertEquals(3, world.getSurvivalTime());
+    }
+
+    @Test
+    public void tick_reportsCollisionOnce() {
+        GameWorld world = new GameWorld(1);
+        world.resize(1080, 2400);
+        Spaceship ship = world.getSpaceship();
+        // Two meteors parked right on top of the ship
+        for (int i = 0; i < 2; i++) {
+            world.getMeteors().spawn(ship.x, ship.y, ship.width, 0f);
+        }
+
+        final int[] collisions = new int[1];
+        world.setListener(new GameWorld.Listener() {
+            @Override
+            public void onNearMiss(int nearMisses) {
+            }
+
+            @Override
+            public void onCollision(long survivalTime, int nearMisses) {
+                collisions[0]++;
+            }
+
+            @Override
+            public void onMilestone(long survivalTime) {
+            }
+        });
+        world.tick();
+        world.tick();
+
+        assertTrue(world.isGameOver());
+        assertEquals(1, collisions[0]);
+    }
+
+    @Test
+    public void tick_countsNearMissOncePerMeteor() {
+        GameWorld world = new GameWorld(1);
+        world.resize(1080, 2400);
+        Spaceship ship = world.getSpaceship();
+        // Just outside the collision radius, inside the near-miss radius
+        float size = 60;
+        float gap = (ship.width / 2 + size / 2);
+        world.getMeteors().spawn(ship.x + ship.width / 2 + gap - size / 2,
+                ship.y + ship.height / 2 - size / 2, size, 0f);
+
+        world.tick();
+        world.tick();
+
+        assertFalse(world.isGameOver());
+        assertEquals(1, world.getNearMisses());
+        assertEquals(MeteorPool.PROXIMITY_NEAR, world.getMeteors().proximity[0]);
+    }
+
+    @Test
+    public void tick_hitsMeteorThatStepsOverTheShip() {
+        GameWorld world = new GameWorld(1);
+        world.resize(1080, 2400);
+        Spaceship ship = world.getSpaceship();
+        // Starts 200 px above the ship's center and ends 100 px below it: both ends
+        // are out of reach, but the path goes straight through the ship
+        float size = 40;
+        float shipCenterY = ship.y + ship.height / 2;
+        world.getMeteors().spawn(ship.x + ship.width / 2 - size / 2, shipCenterY - 200 - size / 2, size, 300f);
+
+        world.tick();
+
+        assertTrue(world.isGameOver());
+    }
+
+    @Test
+    public void lowTickRate_keepsRealTimeSpeeds() {
+        GameWorld world = new GameWorld(1, null, 30);
+        world.resize(1080, 2400);
+        int i = world.getMeteors().spawn(0, 0, 40, 5f);
+        world.tick();
+        // Two 60 Hz steps per tick
+        assertEquals(10f, world.getMeteors().y[i], 0f);
+
+        for (int t = 1; t < 30 * 3; t++) {
+            world.tick();
+        }
+        assertEquals(3, world.getSurvivalTime());
+    }
+
+        @Test
+    public void restoreState_continuesExactlyWherePlayStopped() throws Exception {
+        GameWorld original = new GameWorld(77);
+        original.resize(1080, 2400);
+        for (int i = 0; i < 900; i++) {
+            original.moveShip(200 + i % 600);
+            original.tick();
+        }
+
+        GameWorld restored = GameWorld.fromState(original.saveState());
+        for (int i = 0; i < 900; i++) {
+            original.moveShip(800 - i % 500);
+            restored.moveShip(800 - i % 500);
+            original.tick();
+            restored.tick();
+        }
+
+        assertEquals(original.getTicks(), restored.getTicks());
+        assertEquals(original.isGameOver(), restored.isGameOver());
+        assertEquals(original.getNearMisses(), restored.getNearMisses());
+        assertEquals(original.getTotalSpawns(), restored.getTotalSpawns());
+        assertEquals(original.getMeteors().size(), restored.getMeteors().size());
+        assertArrayEquals(original.getStarfield().getPoints(0), restored.getStarfield().getPoints(0), 0f);
+        assertArrayEquals(original.saveState(), restored.saveState());
+    }
+}
@@ -0,0 +1,42 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketBounds_coverEveryValue() {
+        for (long v = 0; v < 100_000; v++) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(v <= LatencyHistogram.upperBoundOf(index));
+            if (index > 0) {
+                assertTrue(v > LatencyHistogram.upperBoundOf(index - 1));
+            }
+        }
+    }
+
+    @Test
+    public void percentile_isWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 1ms .. 100ms in 1ms steps
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+
+        assertEquals(100, histogram.count());
+        assertEquals(50_000_000L, histogram.percentile(50), 50_000_000L * 0.07);
+        assertEquals(95_000_000L, histogram.percentile(95), 95_000_000L * 0.07);
+        assertEquals(100_000_000L, histogram.percentile(100));
+    }
+
+    @Test
+    public void reset_clearsCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(123);
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(99));
+    }
+}
@@ -0,0 +1,54 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QualityGovernorTest {
+
+    private static final long BUDGET = FixedStepClock.TICK_NANOS;
+
+    @Test
+    public void sustainedOverload_stepsDownInOrder() {
+        QualityGovernor governor = new QualityGovernor(BUDGET);
+        feed(governor, BUDGET * 2, 30);
+        assertEquals(QualityGovernor.NO_TRAILS, governor.getLevel());
+        assertFalse(governor.drawsTrails());
+        assertTrue(governor.drawsGlow());
+
+        feed(governor, BUDGET * 2, 30 * 10);
+        assertEquals(QualityGovernor.LOW_RESOLUTION, governor.getLevel());
+        assertEquals(0.75f, governor.resolutionScale(), 0f);
+    }
+
+    @Test
+    public void headroom_stepsBackUpSlowly() {
+        QualityGovernor governor = new QualityGovernor(BUDGET);
+        feed(governor, BUDGET * 2, 60);
+        assertEquals(QualityGovernor.NO_GLOW, governor.getLevel());
+
+        // Half a second of fast frames is not enough to trust
+        feed(governor, BUDGET / 4, 60);
+        assertEquals(QualityGovernor.NO_GLOW, governor.getLevel());
+
+        feed(governor, BUDGET / 4, 200);
+        assertEquals(QualityGovernor.NO_TRAILS, governor.getLevel());
+    }
+
+    @Test
+    public void framesBetweenThresholds_holdTheLevel() {
+        QualityGovernor governor = new QualityGovernor(BUDGET);
+        feed(governor, BUDGET * 2, 30);
+        long changes = governor.getLevelChanges();
+
+        feed(governor, BUDGET * 9 / 10, 60 * 60);
+        assertEquals(changes, governor.getLevelChanges());
+        assertEquals(QualityGovernor.NO_TRAILS, governor.getLevel());
+    }
+
+    private static void feed(QualityGovernor governor, long frameNanos, int frames) {
+        for (int i = 0; i < frames; i++) {
+            governor.record(frameNanos);
+        }
+    }
+}
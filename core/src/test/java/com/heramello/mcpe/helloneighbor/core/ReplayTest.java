@@ -0,0 +1,68 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ReplayTest {
+
+    @Test
+    public void replay_reproducesRecordedRun() throws Exception {
+        GameWorld world = new GameWorld(1234);
+        world.resize(1080, 2400);
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.start(world);
+
+        // A finger that wanders left and right, changing direction now and then
+        Random finger = new Random(99);
+        int x = 540;
+        for (int i = 0; i < 60 * 120 && !world.isGameOver(); i++) {
+            if (i % 20 == 0) {
+                x = Math.max(0, Math.min(1080, x + finger.nextInt(301) - 150));
+            }
+            world.moveShip(x);
+            recorder.recordTick();
+            world.tick();
+        }
+        Replay recorded = recorder.finish();
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        recorded.writeTo(file);
+        Replay loaded = Replay.readFrom(new ByteArrayInputStream(file.toByteArray()));
+
+        ReplayPlayer player = new ReplayPlayer(loaded);
+        player.playToEnd();
+
+        assertTrue(player.matchesRecording());
+        assertEquals(world.getTicks(), player.getWorld().getTicks());
+        assertEquals(world.isGameOver(), player.getWorld().isGameOver());
+        assertEquals(world.getSpaceship().x, player.getWorld().getSpaceship().x, 0f);
+        // Mostly-still input should cost about one byte per tick
+        assertTrue(loaded.getInputLength() < loaded.getTickCount() * 2);
+    }
+
+    @Test
+    public void differentInput_isDetected() throws Exception {
+        GameWorld world = new GameWorld(5);
+        world.resize(1080, 2400);
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.start(world);
+        for (int i = 0; i < 600; i++) {
+            recorder.recordTick();
+            world.tick();
+        }
+        Replay replay = recorder.finish();
+
+        // Same seed and inputs, but a tampered outcome must not verify
+        Replay tampered = new Replay(replay.seed, replay.swarm, replay.width, replay.height, replay.ticksPerSecond,
+                replay.tickCount, replay.inputs, replay.inputLength,
+                replay.survivalTime, replay.nearMisses + 1);
+        ReplayPlayer player = new ReplayPlayer(tampered);
+        player.playToEnd();
+        assertFalse(player.matchesRecording());
+    }
+}
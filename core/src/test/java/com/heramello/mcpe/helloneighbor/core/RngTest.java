@@ -0,0 +1,34 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RngTest {
+
+    @Test
+    public void matchesJavaUtilRandom() {
+        Random expected = new Random(42);
+        Rng actual = new Rng(42);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(expected.nextInt(100), actual.nextInt(100));
+            assertEquals(expected.nextInt(980), actual.nextInt(980));
+            assertEquals(expected.nextInt(64), actual.nextInt(64));
+            assertEquals(expected.nextFloat(), actual.nextFloat(), 0f);
+            assertEquals(expected.nextLong(), actual.nextLong());
+        }
+    }
+
+    @Test
+    public void restoredState_continuesTheSequence() {
+        Rng rng = new Rng(7);
+        rng.nextLong();
+        Rng copy = new Rng(0);
+        copy.setState(rng.getState());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(rng.nextInt(), copy.nextInt());
+        }
+    }
+}
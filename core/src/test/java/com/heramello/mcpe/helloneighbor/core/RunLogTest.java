@@ -0,0 +1,156 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RunLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void append_maintainsAggregatesAndRanking() throws Exception {
+        RunLog log = open();
+        int[] scores = {50, 120, 80, 120, 10};
+        for (int i = 0; i < scores.length; i++) {
+            log.append(new RunRecord(scores[i], scores[i] / 10, 0, i));
+        }
+
+        assertEquals(5, log.size());
+        assertEquals(120, log.getBestScore(RunRecord.MODE_CLASSIC));
+        assertEquals(76.0, log.getAverageScore(RunRecord.MODE_CLASSIC), 1e-9);
+        // Only the 10 is below 50
+        assertEquals(20.0, log.percentileRank(RunRecord.MODE_CLASSIC, 50), 1e-9);
+        assertEquals(0.0, log.percentileRank(RunRecord.MODE_CLASSIC, 10), 1e-9);
+
+        List<RunRecord> top = log.top(RunRecord.MODE_CLASSIC, 0, 3);
+        assertEquals(120, top.get(0).score);
+        assertEquals(1, top.get(0).finishedAtMillis);
+        // Tied scores keep play order
+        assertEquals(3, top.get(1).finishedAtMillis);
+        assertEquals(80, top.get(2).score);
+        assertEquals(10, log.top(RunRecord.MODE_CLASSIC, 4, 10).get(0).score);
+        assertTrue(log.top(RunRecord.MODE_CLASSIC, 5, 10).isEmpty());
+        log.close();
+    }
+
+    @Test
+    public void recentAverage_coversOnlyTheLastRuns() throws Exception {
+        RunLog log = open();
+        for (int i = 0; i < 100; i++) {
+            log.append(new RunRecord(i < 80 ? 0 : 100, 0, 0, i));
+        }
+        assertEquals(100.0, log.getRecentAverageScore(RunRecord.MODE_CLASSIC), 1e-9);
+        assertEquals(20.0, log.getAverageScore(RunRecord.MODE_CLASSIC), 1e-9);
+        log.close();
+    }
+
+    @Test
+    public void reopen_restoresIndexAndReplaysUnindexedTail() throws Exception {
+        RunLog log = open();
+        for (int i = 0; i < 30; i++) {
+            log.append(new RunRecord(i * 5, i, 1, i));
+        }
+        log.close();
+
+        // Simulate a crash after the record was written but before the index was:
+        // restore the older index over the new one
+        File index = new File(folder.getRoot(), "runs.idx");
+        byte[] oldIndex = Files.readAllBytes(index.toPath());
+        log = open();
+        log.append(new RunRecord(1000, 100, 3, 30));
+        log.close();
+        Files.write(index.toPath(), oldIndex);
+        // ...and a half-written record after it
+        RandomAccessFile raw = new RandomAccessFile(new File(folder.getRoot(), "runs.log"), "rw");
+        raw.seek(raw.length());
+        raw.writeInt(7);
+        raw.close();
+
+        log = open();
+        assertEquals(31, log.size());
+        assertEquals(1000, log.getBestScore(RunRecord.MODE_CLASSIC));
+        assertEquals(1000, log.top(RunRecord.MODE_CLASSIC, 0, 1).get(0).score);
+        assertEquals(30 + 3, log.getTotalNearMisses(RunRecord.MODE_CLASSIC));
+        log.append(new RunRecord(1, 0, 0, 31));
+        assertEquals(32, log.size());
+        // Ranked just above the 0 from the first run
+        assertEquals(1, log.top(RunRecord.MODE_CLASSIC, 30, 1).get(0).score);
+        log.close();
+    }
+
+    @Test
+    public void modes_areRankedSeparately() throws Exception {
+        RunLog log = open();
+        log.append(new RunRecord(100, 0, 0, 0, RunRecord.MODE_CLASSIC));
+        assertEquals(0, log.append(new RunRecord(40, 0, 0, 1, RunRecord.MODE_SWARM)));
+        assertEquals(1, log.append(new RunRecord(60, 0, 0, 2, RunRecord.MODE_CLASSIC)));
+        log.close();
+
+        log = open();
+        assertEquals(3, log.size());
+        assertEquals(1, log.size(RunRecord.MODE_SWARM));
+        assertEquals(40, log.getBestScore(RunRecord.MODE_SWARM));
+        assertEquals(80.0, log.getAverageScore(RunRecord.MODE_CLASSIC), 1e-9);
+        // The classic 60 doesn't count against swarm runs
+        assertEquals(100.0, log.percentileRank(RunRecord.MODE_SWARM, 50), 1e-9);
+        List<RunRecord> swarm = log.top(RunRecord.MODE_SWARM, 0, 10);
+        assertEquals(1, swarm.size());
+        assertEquals(RunRecord.MODE_SWARM, swarm.get(0).mode);
+        assertEquals(60, log.top(RunRecord.MODE_CLASSIC, 1, 1).get(0).score);
+        log.close();
+    }
+
+    @Test
+    public void ranking_staysOrderedAcrossPageSplits() throws Exception {
+        RunLog log = open();
+        int runs = RankedScores.PAGE_CAPACITY * 3;
+        for (int i = 0; i < runs; i++) {
+            log.append(new RunRecord((i * 37) % 101, 0, 0, i));
+        }
+        List<RunRecord> ranked = log.top(RunRecord.MODE_CLASSIC, 0, runs);
+        assertEquals(runs, ranked.size());
+        for (int i = 1; i < runs; i++) {
+            RunRecord previous = ranked.get(i - 1);
+            RunRecord run = ranked.get(i);
+            assertTrue(previous.score > run.score
+                    || previous.score == run.score && previous.finishedAtMillis < run.finishedAtMillis);
+        }
+        log.close();
+
+        // A ranking rebuilt from the log matches the one kept by appends
+        log = open();
+        List<RunRecord> rebuilt = log.top(RunRecord.MODE_CLASSIC, 0, runs);
+        for (int i = 0; i < runs; i++) {
+            assertEquals(ranked.get(i).finishedAtMillis, rebuilt.get(i).finishedAtMillis);
+        }
+        log.close();
+    }
+
+    @Test
+    public void clear_removesEverything() throws Exception {
+        RunLog log = open();
+        log.append(new RunRecord(5, 0, 0, 0));
+        log.clear();
+        log.close();
+
+        log = open();
+        assertEquals(0, log.size());
+        assertEquals(0, log.getBestScore(RunRecord.MODE_CLASSIC));
+        log.close();
+    }
+
+    private RunLog open() throws Exception {
+        RunLog log = new RunLog(new File(folder.getRoot(), "runs.log"), new File(folder.getRoot(), "runs.idx"));
+        log.open();
+        return log;
+    }
+}
@@ -0,0 +1,82 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SnapshotBufferTest {
+
+    @Test
+    public void reader_getsNewestPublishedSnapshot() {
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        GameWorld world = new GameWorld(1);
+        world.resize(1080, 1920);
+        assertFalse(buffer.hasFresh());
+
+        for (int i = 0; i < 3; i++) {
+            world.tick();
+            buffer.back().capture(world);
+            buffer.publish();
+        }
+        assertTrue(buffer.hasFresh());
+        WorldSnapshot snapshot = buffer.acquire();
+        assertEquals(3, snapshot.getTicks());
+        assertFalse(buffer.hasFresh());
+        // Nothing new: the same snapshot again, and never the one being written
+        assertSame(snapshot, buffer.acquire());
+        assertNotSame(snapshot, buffer.back());
+    }
+
+    @Test
+    public void snapshot_isUnaffectedByLaterTicks() {
+        GameWorld world = new GameWorld(5);
+        world.resize(1080, 1920);
+        for (int i = 0; i < 600; i++) world.tick();
+
+        WorldSnapshot snapshot = new WorldSnapshot();
+        snapshot.capture(world);
+        int meteors = snapshot.getMeteors().size();
+        float firstY = meteors > 0 ? snapshot.getMeteors().y[0] : 0;
+        for (int i = 0; i < 60; i++) world.tick();
+
+        assertTrue(meteors > 0);
+        assertEquals(meteors, snapshot.getMeteors().size());
+        assertEquals(firstY, snapshot.getMeteors().y[0], 0f);
+        assertEquals(600, snapshot.getTicks());
+    }
+
+    @Test
+    public void concurrentReader_neverSeesATornSnapshot() throws Exception {
+        final SnapshotBuffer buffer = new SnapshotBuffer();
+        final int publishes = 20_000;
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                GameWorld world = new GameWorld(9);
+                world.resize(1080, 1920);
+                for (int i = 0; i < publishes; i++) {
+                    world.tick();
+                    WorldSnapshot snapshot = buffer.back();
+                    snapshot.capture(world);
+                    // The tick is also written last, into the timing fields
+                    snapshot.setTiming(0, world.getTicks(), 0, -1);
+                    buffer.publish();
+                }
+            }
+        });
+        writer.start();
+
+        long lastTick = 0;
+        while (lastTick < publishes) {
+            WorldSnapshot snapshot = buffer.acquire();
+            long tick = snapshot.getTicks();
+            assertEquals(tick, snapshot.getPublishedNanos());
+            assertEquals(tick / FixedStepClock.TICKS_PER_SECOND, snapshot.getSurvivalTime());
+            assertTrue(tick >= lastTick);
+            lastTick = tick;
+            if (!writer.isAlive() && !buffer.hasFresh()) break;
+        }
+        writer.join();
+        assertEquals(publishes, buffer.acquire().getTicks());
+    }
+}
@@ -0,0 +1,79 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class SwarmUpdaterTest {
+
+    @Test
+    public void swarm_isIdenticalForAnyPoolSize() throws Exception {
+        byte[] single = playSwarm(1);
+        assertArrayEquals(single, playSwarm(2));
+        assertArrayEquals(single, playSwarm(7));
+    }
+
+    @Test
+    public void swarm_fieldGrowsPastOneChunk() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            GameWorld world = new GameWorld(3, pool);
+            world.resize(1080, 2400);
+            // Park the ship off the field so the run cannot end early
+            world.getSpaceship().y = 1_000_000;
+            for (int i = 0; i < 60 * 60; i++) {
+                world.tick();
+            }
+            assertTrue(world.getMeteors().size() > 2 * SwarmUpdater.CHUNK);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void swarm_countsEachNearMissOnceAndCullsOffscreenMeteors() {
+        GameWorld world = new GameWorld(1, ForkJoinPool.commonPool());
+        world.resize(1080, 2400);
+        Spaceship ship = world.getSpaceship();
+        MeteorPool meteors = world.getMeteors();
+        meteors.spawn(0, 2399, 20, 50f);
+        float size = 60;
+        float gap = (ship.width / 2 + size / 2);
+        meteors.spawn(ship.x + ship.width / 2 + gap - size / 2,
+                ship.y + ship.height / 2 - size / 2, size, 0f);
+
+        world.tick();
+        world.tick();
+
+        assertFalse(world.isGameOver());
+        assertEquals(1, world.getNearMisses());
+    }
+
+    private static byte[] playSwarm(int threads) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            GameWorld world = new GameWorld(99, pool);
+            world.resize(1080, 2400);
+            // Let the field fill up over several chunks with the ship out of the way,
+            // then bring it back so near misses and the collision merge too
+            Spaceship ship = world.getSpaceship();
+            float shipY = ship.y;
+            ship.y = 1_000_000;
+            for (int i = 0; i < 60 * 30; i++) {
+                world.tick();
+            }
+            assertTrue(world.getMeteors().size() > 2 * SwarmUpdater.CHUNK);
+            ship.y = shipY;
+            for (int i = 0; i < 60 * 30 && !world.isGameOver(); i++) {
+                world.moveShip(100 + (i * 7) % 880);
+                world.tick();
+            }
+            assertTrue(world.isGameOver());
+            return world.saveState();
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
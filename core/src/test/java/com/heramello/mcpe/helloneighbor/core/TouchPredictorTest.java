@@ -0,0 +1,73 @@
+package com.heramello.mcpe.helloneighbor.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TouchPredictorTest {
+
+    @Test
+    public void steadyMotion_isExtrapolatedToThePresentTime() {
+        TouchPredictor predictor = new TouchPredictor();
+        // 0.5 px/ms, sampled every 4 ms
+        for (int t = 0; t <= 40; t += 4) {
+            predictor.add(100 + t / 2f, 1000 + t);
+        }
+        assertEquals(0.5f, predictor.velocity(), 1e-4f);
+        // Newest sample is at 1040 / x=120; 6 ms later plus 16 ms lead
+        assertEquals(131f, predictor.predict(1046, 16, 0, 1080), 1e-3f);
+    }
+
+    @Test
+    public void prediction_isCappedAndClamped() {
+        TouchPredictor predictor = new TouchPredictor();
+        for (int t = 0; t <= 40; t += 8) {
+            predictor.add(1000 + t * 2, t);
+        }
+        // Lead is capped at MAX_LEAD_MILLIS, then the result at the screen edge
+        assertEquals(1080 + 2 * TouchPredictor.MAX_LEAD_MILLIS,
+                predictor.predict(40, 500, 0, 5000), 1e-3f);
+        assertEquals(1080f, predictor.predict(40, 16, 0, 1080), 1e-3f);
+    }
+
+    @Test
+    public void restingFinger_isNotExtrapolated() {
+        TouchPredictor predictor = new TouchPredictor();
+        for (int t = 0; t <= 40; t += 8) {
+            predictor.add(t, t);
+        }
+        assertEquals(40f, predictor.predict(40 + TouchPredictor.STALE_MILLIS + 1, 16, 0, 1080), 0f);
+    }
+
+    @Test
+    public void newStroke_forgetsTheOldOne() {
+        TouchPredictor predictor = new TouchPredictor();
+        for (int t = 0; t <= 40; t += 8) {
+            predictor.add(t * 10, t);
+        }
+        predictor.add(500, 1000);
+        assertEquals(0f, predictor.velocity(), 0f);
+        predictor.add(490, 1008);
+        assertEquals(-1.25f, predictor.velocity(), 1e-4f);
+    }
+
+    @Test
+    public void snapshotShip_isDrawnAheadWhileTheWorldKeepsTheRealSample() {
+        GameWorld world = new GameWorld(42);
+        world.resize(1080, 2400);
+        TouchPredictor predictor = new TouchPredictor();
+        // 1 px/ms, newest sample x=340 at 40 ms
+        for (int t = 0; t <= 40; t += 8) {
+            predictor.add(300 + t, t);
+        }
+        world.moveShip(340);
+        float realX = world.getSpaceship().x;
+
+        WorldSnapshot snapshot = new WorldSnapshot();
+        snapshot.capture(world);
+        snapshot.captureTouch(predictor);
+        snapshot.predictShip(40, 16);
+        assertEquals(realX + 16, snapshot.getSpaceship().x, 1e-3f);
+        assertEquals(realX, world.getSpaceship().x, 0f);
+    }
+}